@@ -1,26 +1,90 @@
 package com.wager;
 
 import com.wager.arena.ArenaManager;
+import com.wager.arena.SpectatorManager;
 import com.wager.commands.ArenaCommand;
 import com.wager.commands.LeaveCommand;
 import com.wager.commands.WagerCommand;
+import com.wager.config.KitRegistry;
+import com.wager.config.Messages;
+import com.wager.config.WagerSettings;
+import com.wager.events.WagerEventBus;
 import com.wager.listeners.GUIListener;
 import com.wager.listeners.PlayerListener;
 import com.wager.managers.EconomyManager;
+import com.wager.managers.EscrowManager;
+import com.wager.managers.MatchClock;
+import com.wager.managers.Matchmaker;
+import com.wager.managers.PlayerPreferences;
+import com.wager.managers.PlayerSnapshot;
+import com.wager.managers.SettlementQueue;
+import com.wager.managers.StatsManager;
+import com.wager.managers.WagerBroadcaster;
+import com.wager.managers.WagerExpiry;
 import com.wager.managers.WagerManager;
+import com.wager.storage.WagerJournal;
+import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
 public class WagerPlugin extends JavaPlugin {
 
+    // Time onDisable may spend giving fighters their inventories back before deferring the rest
+    private static final long SHUTDOWN_RESTORE_BUDGET_MILLIS = 2000;
+
     private static WagerPlugin instance;
+    private volatile WagerSettings settings;
+    private volatile KitRegistry kits;
+    private volatile Messages messages;
     private EconomyManager economyManager;
+    private EscrowManager escrowManager;
+    private SettlementQueue settlementQueue;
+    private WagerJournal wagerJournal;
+    private WagerEventBus eventBus;
+    private StatsManager statsManager;
+    private PlayerPreferences preferences;
+    private WagerBroadcaster broadcaster;
     private WagerManager wagerManager;
     private ArenaManager arenaManager;
+    private SpectatorManager spectatorManager;
+    private Matchmaker matchmaker;
+    private MatchClock matchClock;
+    private WagerExpiry wagerExpiry;
 
     @Override
     public void onEnable() {
         instance = this;
         saveDefaultConfig();
+        try {
+            settings = WagerSettings.parse(getConfig());
+        } catch (IllegalArgumentException e) {
+            getLogger().severe("Invalid config.yml, using defaults: " + e.getMessage());
+            settings = WagerSettings.defaults();
+        }
+        try {
+            kits = KitRegistry.parse(getConfig());
+        } catch (IllegalArgumentException e) {
+            getLogger().severe("Invalid kits in config.yml, using the built-in kit: " + e.getMessage());
+            kits = KitRegistry.defaults();
+        }
+        try {
+            messages = loadMessages();
+        } catch (IllegalArgumentException e) {
+            getLogger().severe("Invalid messages.yml, using the built-in messages: " + e.getMessage());
+            YamlConfiguration builtIn = builtInMessages();
+            messages = Messages.parse(builtIn, builtIn);
+        }
 
         // Create schematics folder
         java.io.File schemFolder = new java.io.File(getDataFolder(), "schematics");
@@ -30,10 +94,40 @@ public class WagerPlugin extends JavaPlugin {
 
         // Initialize managers
         economyManager = new EconomyManager(this);
-        economyManager.setupEconomy();
+        if (!economyManager.setupEconomy()) {
+            getLogger().severe("No usable economy; disabling WagerPlugin");
+            getServer().getPluginManager().disablePlugin(this);
+            return;
+        }
+        escrowManager = new EscrowManager(this);
+        settlementQueue = new SettlementQueue(this);
+        settlementQueue.start();
+        wagerJournal = new WagerJournal(getDataFolder(), getLogger());
+        WagerJournal.Recovery recovery = null;
+        try {
+            recovery = wagerJournal.load();
+        } catch (IOException e) {
+            getLogger().log(Level.SEVERE, "Failed to open the wager journal; crash recovery is disabled", e);
+        }
 
+        eventBus = new WagerEventBus(this, 2);
+        statsManager = new StatsManager(this);
+        statsManager.start();
+        preferences = new PlayerPreferences(this);
+        broadcaster = new WagerBroadcaster(this, preferences);
+        broadcaster.start();
         arenaManager = new ArenaManager(this);
+        spectatorManager = new SpectatorManager(this);
+        matchClock = new MatchClock(this);
+        matchClock.start();
         wagerManager = new WagerManager(this);
+        if (recovery != null) {
+            recoverWagers(recovery);
+        }
+        wagerExpiry = new WagerExpiry(this);
+        wagerExpiry.start();
+        matchmaker = new Matchmaker(this);
+        matchmaker.start();
 
         // Register commands
         getCommand("wager").setExecutor(new WagerCommand(this));
@@ -47,13 +141,34 @@ public class WagerPlugin extends JavaPlugin {
         // Load arenas
         arenaManager.loadArenas();
 
-        getLogger().info("WagerPlugin enabled! Tax rate: " + getConfig().getDouble("tax-percent") + "%");
+        getLogger().info("WagerPlugin enabled! Tax rate: " + settings.getTaxPercent() + "%");
     }
 
     @Override
     public void onDisable() {
         if (wagerManager != null) {
-            wagerManager.cancelAllWagers();
+            wagerManager.cancelAllWagers(SHUTDOWN_RESTORE_BUDGET_MILLIS);
+        }
+        if (spectatorManager != null) {
+            spectatorManager.closeAll();
+        }
+        if (eventBus != null) {
+            eventBus.shutdown(2, TimeUnit.SECONDS);
+        }
+        if (statsManager != null) {
+            statsManager.shutdown();
+        }
+        if (preferences != null) {
+            preferences.shutdown();
+        }
+        if (settlementQueue != null) {
+            settlementQueue.shutdown();
+        }
+        if (wagerJournal != null) {
+            wagerJournal.close();
+        }
+        if (economyManager != null) {
+            economyManager.shutdown();
         }
         if (arenaManager != null) {
             arenaManager.saveArenas();
@@ -61,19 +176,129 @@ public class WagerPlugin extends JavaPlugin {
         getLogger().info("WagerPlugin disabled!");
     }
 
+    /**
+     * Refund stakes and queue inventory restores for wagers the last run didn't finish
+     */
+    private void recoverWagers(WagerJournal.Recovery recovery) {
+        int refunded = escrowManager.recover(recovery.wagers());
+
+        List<PlayerSnapshot> snapshots = new ArrayList<>();
+        for (Map.Entry<UUID, byte[]> entry : recovery.snapshots().entrySet()) {
+            try {
+                snapshots.add(PlayerSnapshot.fromBytes(entry.getValue()));
+            } catch (IOException e) {
+                getLogger().log(Level.SEVERE, "Saved inventory of " + entry.getKey() + " is unreadable", e);
+            }
+        }
+        wagerManager.adoptSnapshots(snapshots);
+
+        if (!recovery.wagers().isEmpty() || !snapshots.isEmpty()) {
+            getLogger().warning("Recovered " + recovery.wagers().size() + " interrupted wagers (" + refunded
+                    + " stakes refunded) and " + snapshots.size() + " inventories to restore when their owners join");
+        }
+    }
+
     public static WagerPlugin getInstance() {
         return instance;
     }
 
+    public WagerSettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Re-read config.yml and messages.yml and swap in the new settings, kits and messages.
+     * If either file is invalid everything current stays in place and the problems are thrown.
+     */
+    public WagerSettings reloadSettings() {
+        reloadConfig();
+        WagerSettings reloaded = WagerSettings.parse(getConfig());
+        KitRegistry reloadedKits = KitRegistry.parse(getConfig());
+        Messages reloadedMessages = loadMessages();
+        settings = reloaded;
+        kits = reloadedKits;
+        messages = reloadedMessages;
+        return reloaded;
+    }
+
+    private Messages loadMessages() {
+        File file = new File(getDataFolder(), "messages.yml");
+        if (!file.exists()) {
+            saveResource("messages.yml", false);
+        }
+        return Messages.parse(YamlConfiguration.loadConfiguration(file), builtInMessages());
+    }
+
+    private YamlConfiguration builtInMessages() {
+        InputStream in = getResource("messages.yml");
+        if (in == null) return new YamlConfiguration();
+        return YamlConfiguration.loadConfiguration(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    public Messages getMessages() {
+        return messages;
+    }
+
+    public KitRegistry getKits() {
+        return kits;
+    }
+
     public EconomyManager getEconomyManager() {
         return economyManager;
     }
 
+    public EscrowManager getEscrowManager() {
+        return escrowManager;
+    }
+
+    public SettlementQueue getSettlementQueue() {
+        return settlementQueue;
+    }
+
+    public WagerJournal getWagerJournal() {
+        return wagerJournal;
+    }
+
+    /**
+     * Wager lifecycle events, for integrations that want updates off the main thread
+     */
+    public WagerEventBus getEventBus() {
+        return eventBus;
+    }
+
+    public StatsManager getStatsManager() {
+        return statsManager;
+    }
+
+    public PlayerPreferences getPreferences() {
+        return preferences;
+    }
+
+    public WagerBroadcaster getBroadcaster() {
+        return broadcaster;
+    }
+
     public WagerManager getWagerManager() {
         return wagerManager;
     }
 
+    public MatchClock getMatchClock() {
+        return matchClock;
+    }
+
+    public WagerExpiry getWagerExpiry() {
+        return wagerExpiry;
+    }
+
+    public Matchmaker getMatchmaker() {
+        return matchmaker;
+    }
+
     public ArenaManager getArenaManager() {
         return arenaManager;
     }
+
+    public SpectatorManager getSpectatorManager() {
+        return spectatorManager;
+    }
 }
@@ -4,34 +4,57 @@ import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.World;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 public class Arena {
 
     private final String id;
-    private Location spawn1;
-    private Location spawn2;
-    private boolean inUse;
+    private volatile Location spawn1;
+    private volatile Location spawn2;
     private String schematicName;
 
+    // Claimed by a match; only flipped through the ArenaPool
+    private final AtomicBoolean inUse = new AtomicBoolean();
+    // Sitting in the pool's free queue
+    private final AtomicBoolean pooled = new AtomicBoolean();
+    private volatile boolean retired;
+
     public Arena(String id) {
         this.id = id;
-        this.inUse = false;
     }
 
     public String getId() { return id; }
     public Location getSpawn1() { return spawn1; }
     public Location getSpawn2() { return spawn2; }
-    public boolean isInUse() { return inUse; }
+    public boolean isInUse() { return inUse.get(); }
+    public boolean isRetired() { return retired; }
     public String getSchematicName() { return schematicName; }
 
     public void setSpawn1(Location spawn1) { this.spawn1 = spawn1; }
     public void setSpawn2(Location spawn2) { this.spawn2 = spawn2; }
-    public void setInUse(boolean inUse) { this.inUse = inUse; }
+    public void retire() { this.retired = true; }
     public void setSchematicName(String schematicName) { this.schematicName = schematicName; }
 
     public boolean isReady() {
         return spawn1 != null && spawn2 != null;
     }
 
+    boolean tryClaim() {
+        return inUse.compareAndSet(false, true);
+    }
+
+    void unclaim() {
+        inUse.set(false);
+    }
+
+    /**
+     * Mark the arena as queued (true) or taken off the queue (false).
+     * Returns false if it was already in that state.
+     */
+    boolean setPooled(boolean value) {
+        return pooled.compareAndSet(!value, value);
+    }
+
     /**
      * Serialize spawn location to config-friendly string
      */
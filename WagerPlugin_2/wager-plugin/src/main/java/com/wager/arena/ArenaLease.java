@@ -0,0 +1,46 @@
+package com.wager.arena;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Exclusive claim on an arena for one match. Releasing returns the arena to the pool;
+ * releasing twice is a no-op, so every cleanup path can call it safely.
+ */
+public class ArenaLease {
+
+    private final ArenaPool pool;
+    private final Arena arena;
+    private final long claimedAt = System.currentTimeMillis();
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    ArenaLease(ArenaPool pool, Arena arena) {
+        this.pool = pool;
+        this.arena = arena;
+    }
+
+    public Arena getArena() {
+        return arena;
+    }
+
+    public boolean isReleased() {
+        return released.get();
+    }
+
+    /**
+     * Return the arena without a match having been played in it
+     */
+    public void release() {
+        release(false);
+    }
+
+    /**
+     * Return the arena. Pass true only once a match has been fought to the end here,
+     * so the pool's match-length estimate isn't dragged down by leases that were
+     * handed straight back or cancelled.
+     */
+    public void release(boolean hostedMatch) {
+        if (released.compareAndSet(false, true)) {
+            pool.giveBack(arena, System.currentTimeMillis() - claimedAt, hostedMatch);
+        }
+    }
+}
@@ -18,6 +18,7 @@ public class ArenaManager {
 
     private final WagerPlugin plugin;
     private final Map<String, Arena> arenas = new ConcurrentHashMap<>();
+    private final ArenaPool pool = new ArenaPool();
     private Location lobbyLocation;
     private File arenaConfigFile;
     private FileConfiguration arenaConfig;
@@ -50,12 +51,13 @@ public class ArenaManager {
                 arena.setSpawn2(Arena.deserializeLocation(arenaConfig.getString(path + ".spawn2")));
                 arena.setSchematicName(arenaConfig.getString(path + ".schematic", ""));
                 arenas.put(key, arena);
+                pool.offer(arena);
                 plugin.getLogger().info("Loaded arena: " + key);
             }
         }
 
         // Create arena world if it doesn't exist
-        String worldName = plugin.getConfig().getString("arena-world", "wager_arenas");
+        String worldName = plugin.getSettings().getArenaWorld();
         if (Bukkit.getWorld(worldName) == null) {
             if (com.wager.utils.SchedulerUtil.isFolia()) {
                 plugin.getLogger().warning("!!! FOLIA DETECTED !!!");
@@ -129,7 +131,7 @@ public class ArenaManager {
                 return;
             }
 
-            String worldName = plugin.getConfig().getString("arena-world", "wager_arenas");
+            String worldName = plugin.getSettings().getArenaWorld();
             World world = Bukkit.getWorld(worldName);
             if (world == null)
                 return;
@@ -208,21 +210,36 @@ public class ArenaManager {
     }
 
     public void deleteArena(String name) {
-        arenas.remove(name);
+        Arena removed = arenas.remove(name);
+        if (removed != null) removed.retire();
         arenaConfig.set("arenas." + name, null);
         saveArenas();
     }
 
     /**
-     * Find an available arena for a wager match
+     * Claim a free arena for a wager match, or null if all are in use.
+     * Release the lease when the match ends.
      */
-    public Arena findAvailableArena() {
-        for (Arena arena : arenas.values()) {
-            if (arena.isReady() && !arena.isInUse()) {
-                return arena;
-            }
-        }
-        return null;
+    public ArenaLease claimArena() {
+        return pool.claim();
+    }
+
+    /**
+     * Queue for the next free arena when {@link #claimArena()} comes back empty
+     */
+    public ArenaPool.Waiter awaitArena(java.util.function.Consumer<ArenaLease> onAssigned, ArenaPool.PositionListener onMoved) {
+        return pool.await(onAssigned, onMoved);
+    }
+
+    /**
+     * Put an arena up for matches once it's ready (e.g. after its spawns are set)
+     */
+    public void updateAvailability(Arena arena) {
+        pool.offer(arena);
+    }
+
+    public int getFreeArenaCount() {
+        return pool.getFreeCount();
     }
 
     public Arena getArena(String name) {
@@ -0,0 +1,203 @@
+package com.wager.arena;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Lock-free pool of ready arenas with a FIFO wait queue.
+ *
+ * Free arenas sit in a concurrent queue; claiming polls the head and flips the arena's
+ * in-use flag with a compare-and-set, so two accepts can never get the same arena and
+ * neither has to scan the arena map. Arenas that stopped being claimable while queued
+ * (deleted or missing spawns) are dropped when they reach the head.
+ *
+ * When no arena is free, matches join the wait queue and every arena that frees up
+ * goes to the longest-waiting match first. Direct claims are refused while anyone is
+ * waiting, so late arrivals can't jump the line.
+ */
+public class ArenaPool {
+
+    /**
+     * A match waiting for an arena
+     */
+    public static final class Waiter {
+        private final Consumer<ArenaLease> onAssigned;
+        private final PositionListener onMoved;
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        private Waiter(Consumer<ArenaLease> onAssigned, PositionListener onMoved) {
+            this.onAssigned = onAssigned;
+            this.onMoved = onMoved;
+        }
+
+        /**
+         * Leave the queue. Returns false if an arena was already assigned.
+         */
+        public boolean cancel() {
+            return done.compareAndSet(false, true);
+        }
+
+        public boolean isDone() {
+            return done.get();
+        }
+    }
+
+    /**
+     * Told a waiter's 1-based queue position and estimated wait whenever it changes
+     */
+    @FunctionalInterface
+    public interface PositionListener {
+        void moved(int position, long estimatedWaitMillis);
+    }
+
+    private record Assignment(Waiter waiter, ArenaLease lease) {}
+
+    // Assumed match length until a few have finished
+    private static final long DEFAULT_MATCH_MILLIS = 90_000L;
+
+    private final Queue<Arena> free = new ConcurrentLinkedQueue<>();
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private final Object dispatchLock = new Object();
+    private final AtomicInteger leased = new AtomicInteger();
+    private volatile long averageMatchMillis = DEFAULT_MATCH_MILLIS;
+
+    /**
+     * Claim a free arena, or null if none are available or other matches are waiting
+     */
+    public ArenaLease claim() {
+        if (!waiters.isEmpty()) return null;
+        return pollFree();
+    }
+
+    /**
+     * Wait for the next free arena. {@code onAssigned} is called once with the lease,
+     * on whichever thread released the arena; {@code onMoved} is told the starting
+     * position straight away and again each time the queue advances.
+     */
+    public Waiter await(Consumer<ArenaLease> onAssigned, PositionListener onMoved) {
+        Waiter waiter = new Waiter(onAssigned, onMoved);
+        waiters.add(waiter);
+        // An arena may have freed up while we were deciding to wait
+        dispatch();
+        if (!waiter.isDone()) {
+            int position = positionOf(waiter);
+            if (position > 0) onMoved.moved(position, estimateWait(position));
+        }
+        return waiter;
+    }
+
+    /**
+     * Make an arena claimable if it's ready, unused and not already queued
+     */
+    public void offer(Arena arena) {
+        if (!arena.isReady() || arena.isRetired() || arena.isInUse()) return;
+        if (arena.setPooled(true)) {
+            free.add(arena);
+        }
+        dispatch();
+    }
+
+    void giveBack(Arena arena, long heldMillis, boolean hostedMatch) {
+        leased.decrementAndGet();
+        // Moving average of match length for wait estimates
+        if (hostedMatch) {
+            averageMatchMillis = (averageMatchMillis * 7 + heldMillis) / 8;
+        }
+        arena.unclaim();
+        offer(arena);
+    }
+
+    public int getFreeCount() {
+        return free.size();
+    }
+
+    public int getWaitingCount() {
+        return waiters.size();
+    }
+
+    private ArenaLease pollFree() {
+        Arena arena;
+        while ((arena = free.poll()) != null) {
+            arena.setPooled(false);
+            if (!arena.isReady() || arena.isRetired()) continue;
+            if (arena.tryClaim()) {
+                leased.incrementAndGet();
+                return new ArenaLease(this, arena);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Hand free arenas to waiters in arrival order. Callbacks run after the lock is
+     * dropped, since they may release the lease straight back.
+     */
+    private void dispatch() {
+        if (waiters.isEmpty()) return;
+
+        List<Assignment> assigned = new ArrayList<>();
+        synchronized (dispatchLock) {
+            while (!waiters.isEmpty()) {
+                Waiter waiter = waiters.peek();
+                if (waiter.isDone()) {
+                    waiters.poll();
+                    continue;
+                }
+                ArenaLease lease = pollFree();
+                if (lease == null) break;
+                waiters.poll();
+                if (waiter.done.compareAndSet(false, true)) {
+                    assigned.add(new Assignment(waiter, lease));
+                } else {
+                    // Cancelled between peek and claim; put the arena back for the next one
+                    lease.getArena().unclaim();
+                    leased.decrementAndGet();
+                    if (lease.getArena().setPooled(true)) free.add(lease.getArena());
+                }
+            }
+        }
+
+        if (assigned.isEmpty()) return;
+        for (Assignment assignment : assigned) {
+            assignment.waiter().onAssigned.accept(assignment.lease());
+        }
+        notifyPositions();
+    }
+
+    private void notifyPositions() {
+        int position = 0;
+        for (Iterator<Waiter> it = waiters.iterator(); it.hasNext(); ) {
+            Waiter waiter = it.next();
+            if (waiter.isDone()) continue;
+            position++;
+            waiter.onMoved.moved(position, estimateWait(position));
+        }
+    }
+
+    private int positionOf(Waiter target) {
+        int position = 0;
+        for (Waiter waiter : waiters) {
+            if (waiter.isDone()) continue;
+            position++;
+            if (waiter == target) return position;
+        }
+        return -1;
+    }
+
+    /**
+     * Rough wait for the given queue position: arenas turn over about once per average
+     * match, so each round of busy arenas clears that many waiters.
+     */
+    private long estimateWait(int position) {
+        int arenas = Math.max(1, leased.get());
+        int rounds = (position + arenas - 1) / arenas;
+        // On average the current matches are halfway through
+        return rounds * averageMatchMillis - averageMatchMillis / 2;
+    }
+}
@@ -0,0 +1,119 @@
+package com.wager.arena;
+
+import com.wager.config.Message;
+import com.wager.config.Messages;
+import com.wager.config.Param;
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.audience.ForwardingAudience;
+import net.kyori.adventure.sound.Sound;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.title.Title;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Everyone watching one match in an arena: its two fighters and any spectators.
+ *
+ * Match-wide titles, messages and sounds go through here in a single loop over the
+ * members. Localized text is rendered once per locale present in the audience, not once
+ * per player, so a match with thirty spectators usually renders each title once.
+ * Members are kept by UUID and resolved at send time, so players who leave are skipped.
+ */
+public class MatchAudience implements ForwardingAudience {
+
+    public enum Scope {
+        EVERYONE,
+        SPECTATORS
+    }
+
+    private final UUID wagerId;
+    private final String arenaId;
+    private final List<UUID> fighters;
+    private final Set<UUID> spectators = ConcurrentHashMap.newKeySet();
+
+    public MatchAudience(UUID wagerId, String arenaId, UUID creator, UUID opponent) {
+        this.wagerId = wagerId;
+        this.arenaId = arenaId;
+        this.fighters = List.of(creator, opponent);
+    }
+
+    /**
+     * Every online member, fighters first
+     */
+    @Override
+    public Iterable<? extends Audience> audiences() {
+        return members(Scope.EVERYONE);
+    }
+
+    public void showTitle(Scope scope, Messages messages, Message title, Message subtitle, Title.Times times, Param.Arg... args) {
+        Map<Locale, Title> rendered = new HashMap<>(4);
+        for (Player player : members(scope)) {
+            player.showTitle(rendered.computeIfAbsent(player.locale(), locale -> messages.title(locale, title, subtitle, times, args)));
+        }
+    }
+
+    public void sendMessage(Scope scope, Messages messages, Message message, Param.Arg... args) {
+        Map<Locale, Component> rendered = new HashMap<>(4);
+        for (Player player : members(scope)) {
+            player.sendMessage(rendered.computeIfAbsent(player.locale(), locale -> messages.render(locale, message, args)));
+        }
+    }
+
+    public void playSound(Scope scope, Sound sound) {
+        for (Player player : members(scope)) {
+            player.playSound(sound);
+        }
+    }
+
+    private List<Player> members(Scope scope) {
+        List<Player> online = new ArrayList<>(fighters.size() + spectators.size());
+        if (scope == Scope.EVERYONE) {
+            for (UUID fighter : fighters) {
+                Player player = Bukkit.getPlayer(fighter);
+                if (player != null) online.add(player);
+            }
+        }
+        for (UUID spectator : spectators) {
+            Player player = Bukkit.getPlayer(spectator);
+            if (player != null) online.add(player);
+        }
+        return online;
+    }
+
+    void addSpectator(UUID playerId) {
+        spectators.add(playerId);
+    }
+
+    void removeSpectator(UUID playerId) {
+        spectators.remove(playerId);
+    }
+
+    Set<UUID> getSpectators() {
+        return spectators;
+    }
+
+    public UUID getWagerId() {
+        return wagerId;
+    }
+
+    public String getArenaId() {
+        return arenaId;
+    }
+
+    public List<UUID> getFighters() {
+        return fighters;
+    }
+
+    public int getSpectatorCount() {
+        return spectators.size();
+    }
+}
@@ -0,0 +1,217 @@
+package com.wager.arena;
+
+import com.wager.WagerPlugin;
+import com.wager.managers.Wager;
+import com.wager.utils.SchedulerUtil;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+/**
+ * The {@link MatchAudience} of every match in progress, and the players spectating them.
+ *
+ * Spectators are put in spectator mode next to the fighter they asked for and sent back
+ * where they came from, in their old game mode, when they leave or the match ends.
+ * Spectators who can't be sent back right away (they quit, or the server stopped) are
+ * kept in {@code spectators.yml} and sent back when they next join.
+ */
+public class SpectatorManager {
+
+    private record Watching(UUID wagerId, Location returnTo, GameMode previousMode) {}
+
+    private final WagerPlugin plugin;
+    private final Map<UUID, MatchAudience> audiences = new ConcurrentHashMap<>(); // wagerId -> audience
+    private final Map<UUID, Watching> watching = new ConcurrentHashMap<>(); // spectator -> match
+    private final Map<UUID, Watching> pendingReturns = new ConcurrentHashMap<>(); // left while spectating
+    private final File file;
+
+    public SpectatorManager(WagerPlugin plugin) {
+        this.plugin = plugin;
+        this.file = new File(plugin.getDataFolder(), "spectators.yml");
+        loadPendingReturns();
+    }
+
+    /**
+     * Create the audience for a match that is moving into its arena
+     */
+    public MatchAudience open(Wager wager) {
+        MatchAudience audience = new MatchAudience(wager.getId(), wager.getArenaId(), wager.getCreator(), wager.getOpponent());
+        audiences.put(wager.getId(), audience);
+        return audience;
+    }
+
+    public MatchAudience get(UUID wagerId) {
+        return audiences.get(wagerId);
+    }
+
+    /**
+     * Drop a finished match's audience and send its spectators back
+     */
+    public synchronized void close(UUID wagerId) {
+        MatchAudience audience = audiences.remove(wagerId);
+        if (audience == null) return;
+        for (UUID spectatorId : new ArrayList<>(audience.getSpectators())) {
+            Watching entry = watching.remove(spectatorId);
+            Player spectator = Bukkit.getPlayer(spectatorId);
+            if (entry != null && spectator != null) {
+                sendBack(spectator, entry);
+                spectator.sendMessage(ChatColor.YELLOW + "The match you were watching has ended.");
+            }
+        }
+    }
+
+    /**
+     * Start watching the match the target is fighting in. Watching another match first
+     * moves the spectator over and still returns them to where they started.
+     */
+    public synchronized void spectate(Player spectator, Player target) {
+        UUID spectatorId = spectator.getUniqueId();
+        if (spectatorId.equals(target.getUniqueId())) {
+            spectator.sendMessage(ChatColor.RED + "You can't spectate yourself!");
+            return;
+        }
+        if (plugin.getWagerManager().isInWager(spectatorId)) {
+            spectator.sendMessage(ChatColor.RED + "You can't spectate while you're in a wager!");
+            return;
+        }
+
+        Wager wager = plugin.getWagerManager().getPlayerWager(target.getUniqueId());
+        MatchAudience audience = wager != null ? audiences.get(wager.getId()) : null;
+        if (audience == null || wager.getState() == Wager.WagerState.FINISHED) {
+            spectator.sendMessage(ChatColor.RED + target.getName() + " isn't fighting a match right now.");
+            return;
+        }
+        plugin.getMatchmaker().leave(spectatorId);
+
+        Watching previous = watching.get(spectatorId);
+        if (previous != null) {
+            if (previous.wagerId().equals(wager.getId())) {
+                spectator.sendMessage(ChatColor.RED + "You're already watching this match.");
+                return;
+            }
+            MatchAudience old = audiences.get(previous.wagerId());
+            if (old != null) old.removeSpectator(spectatorId);
+        }
+        Location returnTo = previous != null ? previous.returnTo() : spectator.getLocation();
+        GameMode previousMode = previous != null ? previous.previousMode() : spectator.getGameMode();
+        watching.put(spectatorId, new Watching(wager.getId(), returnTo, previousMode));
+        audience.addSpectator(spectatorId);
+
+        Location view = target.getLocation();
+        SchedulerUtil.runEntityTask(plugin, spectator, () -> {
+            spectator.setGameMode(GameMode.SPECTATOR);
+            SchedulerUtil.teleportPlayer(plugin, spectator, view);
+        });
+        spectator.sendMessage(ChatColor.GREEN + "Now spectating " + ChatColor.AQUA + wager.getCreatorName()
+                + ChatColor.GREEN + " vs " + ChatColor.AQUA + opponentName(wager) + ChatColor.GRAY
+                + " (/wager spectate leave to stop)");
+    }
+
+    /**
+     * Stop spectating. Returns false if the player wasn't spectating.
+     */
+    public synchronized boolean leave(Player spectator) {
+        Watching entry = watching.remove(spectator.getUniqueId());
+        if (entry == null) return false;
+        MatchAudience audience = audiences.get(entry.wagerId());
+        if (audience != null) audience.removeSpectator(spectator.getUniqueId());
+        sendBack(spectator, entry);
+        return true;
+    }
+
+    public boolean isSpectating(UUID playerId) {
+        return watching.containsKey(playerId);
+    }
+
+    /**
+     * A spectator who quits gets their game mode back now and is moved back on their next join
+     */
+    public synchronized void handleQuit(Player player) {
+        Watching entry = watching.remove(player.getUniqueId());
+        if (entry == null) return;
+        MatchAudience audience = audiences.get(entry.wagerId());
+        if (audience != null) audience.removeSpectator(player.getUniqueId());
+        player.setGameMode(entry.previousMode());
+        pendingReturns.put(player.getUniqueId(), entry);
+    }
+
+    public void handleJoin(Player player) {
+        Watching entry = pendingReturns.remove(player.getUniqueId());
+        if (entry != null) {
+            sendBack(player, entry);
+        }
+    }
+
+    /**
+     * Send every spectator back for shutdown, and save the ones that can't be (offline, or
+     * on Folia where entity tasks no longer run) for their next join
+     */
+    public synchronized void closeAll() {
+        for (Map.Entry<UUID, Watching> entry : watching.entrySet()) {
+            Player spectator = Bukkit.getPlayer(entry.getKey());
+            if (spectator == null || SchedulerUtil.isFolia()) {
+                pendingReturns.put(entry.getKey(), entry.getValue());
+                continue;
+            }
+            spectator.setGameMode(entry.getValue().previousMode());
+            spectator.teleport(entry.getValue().returnTo());
+        }
+        watching.clear();
+        audiences.clear();
+        savePendingReturns();
+    }
+
+    private void loadPendingReturns() {
+        if (!file.exists()) return;
+        YamlConfiguration config = YamlConfiguration.loadConfiguration(file);
+        for (String key : config.getKeys(false)) {
+            ConfigurationSection section = config.getConfigurationSection(key);
+            if (section == null) continue;
+            try {
+                Location returnTo = Arena.deserializeLocation(section.getString("location"));
+                GameMode mode = GameMode.valueOf(section.getString("gamemode", "SURVIVAL"));
+                if (returnTo != null) pendingReturns.put(UUID.fromString(key), new Watching(null, returnTo, mode));
+            } catch (IllegalArgumentException e) {
+                plugin.getLogger().warning("Skipping invalid entry '" + key + "' in spectators.yml");
+            }
+        }
+    }
+
+    private void savePendingReturns() {
+        YamlConfiguration config = new YamlConfiguration();
+        for (Map.Entry<UUID, Watching> entry : pendingReturns.entrySet()) {
+            ConfigurationSection section = config.createSection(entry.getKey().toString());
+            section.set("location", Arena.serializeLocation(entry.getValue().returnTo()));
+            section.set("gamemode", entry.getValue().previousMode().name());
+        }
+        try {
+            config.save(file);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to save spectators.yml", e);
+        }
+    }
+
+    private void sendBack(Player spectator, Watching entry) {
+        SchedulerUtil.runEntityTask(plugin, spectator, () -> {
+            spectator.setGameMode(entry.previousMode());
+            SchedulerUtil.teleportPlayer(plugin, spectator, entry.returnTo());
+        });
+    }
+
+    private static String opponentName(Wager wager) {
+        Player opponent = Bukkit.getPlayer(wager.getOpponent());
+        return opponent != null ? opponent.getName() : "?";
+    }
+}
@@ -91,10 +91,12 @@ public class ArenaCommand implements CommandExecutor, TabCompleter {
                 if (spawnNum.equals("1")) {
                     arena.setSpawn1(player.getLocation());
                     am.saveArenas();
+                    am.updateAvailability(arena);
                     player.sendMessage(ChatColor.GREEN + "✔ Spawn 1 set for arena '" + arenaName + "'!");
                 } else if (spawnNum.equals("2")) {
                     arena.setSpawn2(player.getLocation());
                     am.saveArenas();
+                    am.updateAvailability(arena);
                     player.sendMessage(ChatColor.GREEN + "✔ Spawn 2 set for arena '" + arenaName + "'!");
                 } else {
                     player.sendMessage(ChatColor.RED + "Invalid spawn number! Use 1 or 2.");
@@ -143,12 +145,16 @@ public class ArenaCommand implements CommandExecutor, TabCompleter {
 
             case "reload" -> {
                 am.reloadSchematics();
-                plugin.reloadConfig();
-                player.sendMessage(ChatColor.GREEN + "✔ Config and schematics reloaded!");
+                try {
+                    plugin.reloadSettings();
+                    player.sendMessage(ChatColor.GREEN + "✔ Config and schematics reloaded!");
+                } catch (IllegalArgumentException e) {
+                    player.sendMessage(ChatColor.RED + "Schematics reloaded, config kept: " + e.getMessage());
+                }
             }
 
             case "world" -> {
-                String worldName = plugin.getConfig().getString("arena-world", "wager_arenas");
+                String worldName = plugin.getSettings().getArenaWorld();
                 org.bukkit.World world = org.bukkit.Bukkit.getWorld(worldName);
                 if (world != null) {
                     player.teleport(world.getSpawnLocation());
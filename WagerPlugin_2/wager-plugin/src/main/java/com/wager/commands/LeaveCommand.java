@@ -44,6 +44,13 @@ public class LeaveCommand implements CommandExecutor {
                     player.sendMessage(ChatColor.RED + "⚠ You forfeited the wager!");
                     plugin.getWagerManager().playerLeave(player);
                 }
+                case ACCEPTED -> {
+                    if (plugin.getWagerManager().isWaitingForArena(wager.getId()) && plugin.getWagerManager().playerLeave(player)) {
+                        player.sendMessage(ChatColor.GREEN + "You left the arena queue.");
+                    } else {
+                        player.sendMessage(ChatColor.RED + "You can't leave right now.");
+                    }
+                }
                 default -> player.sendMessage(ChatColor.RED + "You can't leave right now.");
             }
         }
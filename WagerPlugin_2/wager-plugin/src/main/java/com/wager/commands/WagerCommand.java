@@ -1,7 +1,14 @@
 package com.wager.commands;
 
 import com.wager.WagerPlugin;
+import com.wager.config.WagerSettings;
 import com.wager.gui.GUIManager;
+import com.wager.managers.Leaderboards;
+import com.wager.managers.PlayerPreferences;
+import com.wager.managers.RankedBoard;
+import com.wager.utils.FormatUtil;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
@@ -17,11 +24,43 @@ public class WagerCommand implements CommandExecutor {
 
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        if (args.length > 0 && args[0].equalsIgnoreCase("reload")) {
+            return handleReload(sender);
+        }
+
+        if (args.length > 0 && args[0].equalsIgnoreCase("top")) {
+            handleTop(sender, args);
+            return true;
+        }
+
         if (!(sender instanceof Player player)) {
             sender.sendMessage("Only players can use this command!");
             return true;
         }
 
+        if (args.length > 0 && args[0].equalsIgnoreCase("spectate")) {
+            handleSpectate(player, args);
+            return true;
+        }
+
+        if (plugin.getSpectatorManager().isSpectating(player.getUniqueId())) {
+            player.sendMessage(ChatColor.RED + "You're spectating a match! Use /wager spectate leave first.");
+            return true;
+        }
+
+        if (args.length > 0 && args[0].equalsIgnoreCase("queue")) {
+            handleQueue(player, args);
+            return true;
+        }
+
+        if (args.length > 0 && args[0].equalsIgnoreCase("broadcasts")) {
+            boolean hidden = plugin.getPreferences().toggle(player.getUniqueId(), PlayerPreferences.Preference.HIDE_BROADCASTS);
+            player.sendMessage(hidden
+                    ? ChatColor.YELLOW + "New wager announcements are now hidden. Use /wager broadcasts to show them again."
+                    : ChatColor.GREEN + "New wager announcements are now shown.");
+            return true;
+        }
+
         if (plugin.getWagerManager().isInWager(player.getUniqueId())) {
             var wager = plugin.getWagerManager().getPlayerWager(player.getUniqueId());
             if (wager != null && wager.getState() != com.wager.managers.Wager.WagerState.WAITING) {
@@ -33,4 +72,102 @@ public class WagerCommand implements CommandExecutor {
         GUIManager.openMainMenu(player);
         return true;
     }
+
+    private void handleQueue(Player player, String[] args) {
+        if (args.length < 2 || args[1].equalsIgnoreCase("leave")) {
+            if (plugin.getMatchmaker().leave(player.getUniqueId())) {
+                player.sendMessage(ChatColor.GREEN + "You left the matchmaking queue.");
+            } else if (args.length < 2) {
+                player.sendMessage(ChatColor.RED + "Usage: /wager queue <amount> | /wager queue leave");
+            } else {
+                player.sendMessage(ChatColor.RED + "You're not in the matchmaking queue.");
+            }
+            return;
+        }
+
+        double amount;
+        try {
+            amount = FormatUtil.parseFormattedNumber(args[1]);
+        } catch (NumberFormatException e) {
+            player.sendMessage(ChatColor.RED + "Invalid amount! Formats: 1000, 1k, 5.5k, 1m");
+            return;
+        }
+        plugin.getMatchmaker().join(player, amount);
+    }
+
+    private void handleSpectate(Player player, String[] args) {
+        if (args.length < 2 || args[1].equalsIgnoreCase("leave")) {
+            if (plugin.getSpectatorManager().leave(player)) {
+                player.sendMessage(ChatColor.GREEN + "You stopped spectating.");
+            } else if (args.length < 2) {
+                player.sendMessage(ChatColor.RED + "Usage: /wager spectate <player> | /wager spectate leave");
+            } else {
+                player.sendMessage(ChatColor.RED + "You're not spectating a match.");
+            }
+            return;
+        }
+
+        Player target = Bukkit.getPlayerExact(args[1]);
+        if (target == null) {
+            player.sendMessage(ChatColor.RED + "Player not found: " + args[1]);
+            return;
+        }
+        plugin.getSpectatorManager().spectate(player, target);
+    }
+
+    /**
+     * /wager top [profit|wins|rating] [page]: the GUI for players, a chat listing for the console
+     */
+    private void handleTop(CommandSender sender, String[] args) {
+        Leaderboards.Category category = Leaderboards.Category.RATING;
+        if (args.length > 1) {
+            category = Leaderboards.Category.match(args[1]);
+            if (category == null) {
+                sender.sendMessage(ChatColor.RED + "Usage: /wager top [profit|wins|rating] [page]");
+                return;
+            }
+        }
+        int page = 0;
+        if (args.length > 2) {
+            try {
+                page = Integer.parseInt(args[2]) - 1;
+            } catch (NumberFormatException e) {
+                sender.sendMessage(ChatColor.RED + "Invalid page number!");
+                return;
+            }
+        }
+
+        if (sender instanceof Player player) {
+            GUIManager.openLeaderboardMenu(player, category, page);
+            return;
+        }
+
+        Leaderboards.Page shown = plugin.getStatsManager().getLeaderboards().getPage(category, page);
+        sender.sendMessage(ChatColor.GOLD + "Top " + category.getDisplayName() + ChatColor.GRAY
+                + " (page " + (shown.page() + 1) + " of " + shown.totalPages() + ")");
+        if (shown.entries().isEmpty()) {
+            sender.sendMessage(ChatColor.GRAY + "No matches played yet.");
+        }
+        for (RankedBoard.Entry entry : shown.entries()) {
+            String name = Bukkit.getOfflinePlayer(entry.playerId()).getName();
+            sender.sendMessage(ChatColor.YELLOW + "#" + entry.rank() + " " + ChatColor.WHITE + (name != null ? name : entry.playerId())
+                    + ChatColor.GRAY + " - " + category.format(entry.score()));
+        }
+    }
+
+    private boolean handleReload(CommandSender sender) {
+        if (!sender.hasPermission("wager.admin")) {
+            sender.sendMessage(ChatColor.RED + "You don't have permission to do that!");
+            return true;
+        }
+
+        try {
+            WagerSettings settings = plugin.reloadSettings();
+            sender.sendMessage(ChatColor.GREEN + "✔ Config reloaded. Tax: " + settings.getTaxPercent() + "%, wagers "
+                    + FormatUtil.formatMoney(settings.getMinWager()) + " - " + FormatUtil.formatMoney(settings.getMaxWager()));
+        } catch (IllegalArgumentException e) {
+            sender.sendMessage(ChatColor.RED + "Config not reloaded, keeping current settings: " + e.getMessage());
+        }
+        return true;
+    }
 }
@@ -0,0 +1,55 @@
+package com.wager.config;
+
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+
+/**
+ * A fight kit, built once from config.yml.
+ *
+ * The storage, armor and off-hand templates are complete slot arrays (empty slots are
+ * null), so giving the kit replaces the whole inventory in three bulk calls instead of
+ * building and adding items one by one. The server copies items out of the arrays it is
+ * given, so the templates are shared by every match and never handed out.
+ */
+public final class Kit {
+
+    private final String id;
+    private final String displayName;
+    private final Material icon;
+    private final ItemStack[] storage;
+    private final ItemStack[] armor; // boots, leggings, chestplate, helmet
+    private final ItemStack[] extra; // off-hand
+
+    Kit(String id, String displayName, Material icon, ItemStack[] storage, ItemStack[] armor, ItemStack[] extra) {
+        this.id = id;
+        this.displayName = displayName;
+        this.icon = icon;
+        this.storage = storage;
+        this.armor = armor;
+        this.extra = extra;
+    }
+
+    /**
+     * Replace the player's inventory with this kit
+     */
+    public void apply(Player player) {
+        PlayerInventory inventory = player.getInventory();
+        inventory.setStorageContents(storage);
+        inventory.setArmorContents(armor);
+        inventory.setExtraContents(extra);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public Material getIcon() {
+        return icon;
+    }
+}
@@ -0,0 +1,196 @@
+package com.wager.config;
+
+import com.wager.utils.FormatUtil;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable set of fight kits parsed from the {@code kits} section of config.yml.
+ *
+ * Swapped as a whole on {@code /wager reload}, like {@link WagerSettings}. A wager keeps
+ * the id of its kit; if a reload removes that kit the match falls back to the default.
+ */
+public final class KitRegistry {
+
+    private static final int STORAGE_SLOTS = 36;
+    private static final String[] ARMOR_SLOTS = {"boots", "leggings", "chestplate", "helmet"};
+
+    private final Map<String, Kit> kits;
+    private final List<Kit> ordered;
+    private final Kit defaultKit;
+
+    private KitRegistry(Map<String, Kit> kits, Kit defaultKit) {
+        this.kits = Collections.unmodifiableMap(kits);
+        this.ordered = List.copyOf(kits.values());
+        this.defaultKit = defaultKit;
+    }
+
+    /**
+     * Parse and validate every kit. Throws {@link IllegalArgumentException} listing every
+     * problem found, so a bad reload can be rejected as a whole.
+     */
+    public static KitRegistry parse(ConfigurationSection config) {
+        ConfigurationSection section = config.getConfigurationSection("kits");
+        if (section == null) return defaults();
+
+        List<String> errors = new ArrayList<>();
+        Map<String, Kit> kits = new LinkedHashMap<>();
+        for (String id : section.getKeys(false)) {
+            ConfigurationSection kitSection = section.getConfigurationSection(id);
+            if (kitSection == null) {
+                errors.add("kits." + id + " must be a section");
+                continue;
+            }
+            Kit kit = parseKit(id.toLowerCase(Locale.ROOT), kitSection, errors);
+            if (kit != null) kits.put(kit.getId(), kit);
+        }
+
+        String defaultId = config.getString("default-kit", "").toLowerCase(Locale.ROOT);
+        Kit defaultKit = kits.get(defaultId);
+        if (kits.isEmpty()) {
+            errors.add("kits must define at least one kit");
+        } else if (defaultKit == null) {
+            errors.add("default-kit '" + defaultId + "' is not one of the kits");
+        }
+
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException(String.join("; ", errors));
+        }
+        return new KitRegistry(kits, defaultKit);
+    }
+
+    /**
+     * The built-in diamond kit, used if config.yml has no kits or they are invalid on startup
+     */
+    public static KitRegistry defaults() {
+        ItemStack[] storage = new ItemStack[STORAGE_SLOTS];
+        storage[0] = new ItemStack(Material.DIAMOND_SWORD);
+        storage[1] = new ItemStack(Material.BOW);
+        storage[2] = new ItemStack(Material.ARROW, 16);
+        storage[3] = new ItemStack(Material.GOLDEN_APPLE, 3);
+        ItemStack[] armor = {
+                new ItemStack(Material.DIAMOND_BOOTS), new ItemStack(Material.DIAMOND_LEGGINGS),
+                new ItemStack(Material.DIAMOND_CHESTPLATE), new ItemStack(Material.DIAMOND_HELMET)
+        };
+        Kit kit = new Kit("diamond", "Diamond", Material.DIAMOND_SWORD, storage, armor, new ItemStack[1]);
+
+        Map<String, Kit> kits = new LinkedHashMap<>();
+        kits.put(kit.getId(), kit);
+        return new KitRegistry(kits, kit);
+    }
+
+    private static Kit parseKit(String id, ConfigurationSection section, List<String> errors) {
+        String path = "kits." + id;
+        int errorCount = errors.size();
+
+        String displayName = FormatUtil.color(section.getString("name", id));
+        Material icon = Material.matchMaterial(section.getString("icon", "DIAMOND_SWORD"));
+        if (icon == null || !icon.isItem()) {
+            errors.add(path + ".icon is not an item");
+        }
+
+        List<String> items = section.getStringList("items");
+        if (items.size() > STORAGE_SLOTS) {
+            errors.add(path + ".items has " + items.size() + " entries but only " + STORAGE_SLOTS + " slots");
+        }
+        ItemStack[] storage = new ItemStack[STORAGE_SLOTS];
+        for (int i = 0; i < Math.min(items.size(), STORAGE_SLOTS); i++) {
+            storage[i] = parseItem(items.get(i), path + ".items[" + i + "]", errors);
+        }
+
+        ItemStack[] armor = new ItemStack[ARMOR_SLOTS.length];
+        ConfigurationSection armorSection = section.getConfigurationSection("armor");
+        if (armorSection != null) {
+            for (int i = 0; i < ARMOR_SLOTS.length; i++) {
+                String spec = armorSection.getString(ARMOR_SLOTS[i]);
+                if (spec != null) armor[i] = parseItem(spec, path + ".armor." + ARMOR_SLOTS[i], errors);
+            }
+        }
+
+        ItemStack[] extra = new ItemStack[1];
+        String offhand = section.getString("offhand");
+        if (offhand != null) extra[0] = parseItem(offhand, path + ".offhand", errors);
+
+        if (errors.size() > errorCount) return null;
+        return new Kit(id, displayName, icon, storage, armor, extra);
+    }
+
+    /**
+     * Parse {@code MATERIAL[:amount] [enchantment:level ...]}, e.g. {@code DIAMOND_SWORD sharpness:2}
+     */
+    private static ItemStack parseItem(String spec, String path, List<String> errors) {
+        String[] parts = spec.trim().split("\\s+");
+        String[] head = parts[0].split(":");
+
+        Material material = Material.matchMaterial(head[0]);
+        if (material == null || !material.isItem()) {
+            errors.add(path + ": unknown item '" + head[0] + "'");
+            return null;
+        }
+
+        int amount = 1;
+        if (head.length > 1) {
+            try {
+                amount = Integer.parseInt(head[1]);
+            } catch (NumberFormatException e) {
+                amount = -1;
+            }
+            if (amount < 1 || amount > material.getMaxStackSize()) {
+                errors.add(path + ": amount must be between 1 and " + material.getMaxStackSize());
+                return null;
+            }
+        }
+
+        ItemStack item = new ItemStack(material, amount);
+        for (int i = 1; i < parts.length; i++) {
+            String[] enchant = parts[i].split(":");
+            Enchantment enchantment = Enchantment.getByKey(NamespacedKey.minecraft(enchant[0].toLowerCase(Locale.ROOT)));
+            if (enchantment == null) {
+                errors.add(path + ": unknown enchantment '" + enchant[0] + "'");
+                continue;
+            }
+            try {
+                item.addUnsafeEnchantment(enchantment, enchant.length > 1 ? Integer.parseInt(enchant[1]) : 1);
+            } catch (NumberFormatException e) {
+                errors.add(path + ": invalid level for " + enchant[0]);
+            }
+        }
+        return item;
+    }
+
+    /**
+     * The kit with this id, or the default kit if there is none (or the id is null)
+     */
+    public Kit get(String id) {
+        Kit kit = id != null ? kits.get(id) : null;
+        return kit != null ? kit : defaultKit;
+    }
+
+    /**
+     * The kit with this id, or null if there is none
+     */
+    public Kit find(String id) {
+        return kits.get(id.toLowerCase(Locale.ROOT));
+    }
+
+    public Kit getDefault() {
+        return defaultKit;
+    }
+
+    /**
+     * Every kit, in config order
+     */
+    public List<Kit> getKits() {
+        return ordered;
+    }
+}
@@ -0,0 +1,46 @@
+package com.wager.config;
+
+import java.util.List;
+
+/**
+ * Every message that can be changed in messages.yml, with the placeholders it may use
+ */
+public enum Message {
+    MATCH_STARTING_TITLE("match.starting.title"),
+    MATCH_STARTING_SUBTITLE("match.starting.subtitle", Param.OPPONENT, Param.AMOUNT),
+    COUNTDOWN_TITLE("match.countdown.title", Param.COUNT),
+    COUNTDOWN_FINAL_TITLE("match.countdown.final-title", Param.COUNT),
+    COUNTDOWN_SUBTITLE("match.countdown.subtitle", Param.COUNT),
+    FIGHT_TITLE("match.fight.title"),
+    FIGHT_SUBTITLE("match.fight.subtitle"),
+
+    WON_TITLE("result.won.title", Param.WINNINGS, Param.TAX),
+    WON_SUBTITLE("result.won.subtitle", Param.WINNINGS, Param.TAX),
+    WON_SUMMARY("result.won.summary", Param.OPPONENT, Param.POT, Param.TAX, Param.TAX_PERCENT, Param.WINNINGS),
+    LOST_TITLE("result.lost.title", Param.AMOUNT),
+    LOST_SUBTITLE("result.lost.subtitle", Param.AMOUNT),
+    LOST_SUMMARY("result.lost.summary", Param.OPPONENT, Param.AMOUNT),
+    SPECTATOR_RESULT_TITLE("result.spectator.title", Param.WINNER, Param.LOSER, Param.POT),
+    SPECTATOR_RESULT_SUBTITLE("result.spectator.subtitle", Param.WINNER, Param.LOSER, Param.POT),
+
+    CANCELLED("cancel.cancelled", Param.REASON, Param.AMOUNT);
+
+    private final String path;
+    private final List<Param<?>> params;
+
+    Message(String path, Param<?>... params) {
+        this.path = path;
+        this.params = List.of(params);
+    }
+
+    /**
+     * Path of this message inside a locale section of messages.yml
+     */
+    public String getPath() {
+        return path;
+    }
+
+    public List<Param<?>> getParams() {
+        return params;
+    }
+}
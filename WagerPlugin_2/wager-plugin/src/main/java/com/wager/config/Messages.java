@@ -0,0 +1,232 @@
+package com.wager.config;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+import net.kyori.adventure.title.Title;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Player-facing text from messages.yml, one section per locale.
+ *
+ * Every template is parsed with MiniMessage once, when the file is loaded, into a component
+ * tree with numbered slots where its placeholders go. Sending a message then only fills
+ * the slots with formatted values: nothing is parsed or concatenated per match, and parts
+ * of the tree without placeholders are reused as they are. Each client locale is matched
+ * to the closest configured locale once and remembered. Swapped as a whole on
+ * {@code /wager reload}, like {@link WagerSettings}.
+ */
+public final class Messages {
+
+    // Placeholders are compiled to single private-use characters, U+E000 onwards, one per slot
+    private static final char SLOT_BASE = '\uE000';
+
+    private final Map<String, Map<Message, Template>> locales;
+    private final Map<Message, Template> defaultLocale;
+    private final Map<Locale, Map<Message, Template>> byClientLocale = new ConcurrentHashMap<>();
+
+    private Messages(Map<String, Map<Message, Template>> locales, Map<Message, Template> defaultLocale) {
+        this.locales = locales;
+        this.defaultLocale = defaultLocale;
+    }
+
+    /**
+     * Compile every locale in messages.yml. Messages a locale leaves out fall back to the
+     * default locale, and the default locale falls back to {@code builtIn} (the copy shipped
+     * in the jar). Throws {@link IllegalArgumentException} if the default locale is missing.
+     */
+    public static Messages parse(ConfigurationSection config, ConfigurationSection builtIn) {
+        String defaultId = config.getString("default-locale", "en_us").toLowerCase(Locale.ROOT);
+        ConfigurationSection section = config.getConfigurationSection("locales");
+        if (section == null || section.getConfigurationSection(defaultId) == null) {
+            throw new IllegalArgumentException("messages.yml has no locales." + defaultId + " section for default-locale");
+        }
+
+        MiniMessage miniMessage = MiniMessage.miniMessage();
+        ConfigurationSection builtInDefault = builtIn != null ? builtIn.getConfigurationSection("locales.en_us") : null;
+        Map<Message, Template> defaults = compile(miniMessage, section.getConfigurationSection(defaultId), builtInDefault, null);
+
+        Map<String, Map<Message, Template>> locales = new HashMap<>();
+        for (String id : section.getKeys(false)) {
+            ConfigurationSection localeSection = section.getConfigurationSection(id);
+            if (localeSection == null) continue;
+            String key = id.toLowerCase(Locale.ROOT);
+            locales.put(key, key.equals(defaultId) ? defaults : compile(miniMessage, localeSection, null, defaults));
+        }
+        return new Messages(locales, defaults);
+    }
+
+    private static Map<Message, Template> compile(MiniMessage miniMessage, ConfigurationSection section,
+                                                  ConfigurationSection fallbackText, Map<Message, Template> fallback) {
+        Map<Message, Template> templates = new EnumMap<>(Message.class);
+        for (Message message : Message.values()) {
+            String text = section.getString(message.getPath());
+            if (text == null && fallbackText != null) text = fallbackText.getString(message.getPath());
+            if (text == null) {
+                if (fallback != null) templates.put(message, fallback.get(message));
+                else templates.put(message, Template.compile(Component.text(message.getPath())));
+                continue;
+            }
+
+            List<Param<?>> params = message.getParams();
+            List<TagResolver> slots = new ArrayList<>(params.size());
+            for (int i = 0; i < params.size(); i++) {
+                slots.add(Placeholder.unparsed(params.get(i).getName(), String.valueOf((char) (SLOT_BASE + i))));
+            }
+            templates.put(message, Template.compile(miniMessage.deserialize(text, TagResolver.resolver(slots))));
+        }
+        return templates;
+    }
+
+    /**
+     * The message in the player's language, with its placeholders filled in. Placeholders
+     * the message declares but that aren't passed are left empty.
+     */
+    public Component render(Player player, Message message, Param.Arg... args) {
+        return render(player.locale(), message, args);
+    }
+
+    /**
+     * The message for a client locale; see {@link #render(Player, Message, Param.Arg...)}
+     */
+    public Component render(Locale locale, Message message, Param.Arg... args) {
+        Template template = forLocale(locale).get(message);
+        if (!template.hasSlots()) return template.render(null);
+
+        List<Param<?>> params = message.getParams();
+        String[] values = new String[params.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = "";
+            for (Param.Arg arg : args) {
+                if (arg.param() == params.get(i)) {
+                    values[i] = arg.value();
+                    break;
+                }
+            }
+        }
+        return template.render(values);
+    }
+
+    public void send(Player player, Message message, Param.Arg... args) {
+        player.sendMessage(render(player, message, args));
+    }
+
+    /**
+     * A title and subtitle in the player's language; both are given the same arguments
+     */
+    public Title title(Player player, Message title, Message subtitle, Title.Times times, Param.Arg... args) {
+        return title(player.locale(), title, subtitle, times, args);
+    }
+
+    /**
+     * A title and subtitle for a client locale; both are given the same arguments
+     */
+    public Title title(Locale locale, Message title, Message subtitle, Title.Times times, Param.Arg... args) {
+        return Title.title(render(locale, title, args), render(locale, subtitle, args), times);
+    }
+
+    // Exact locale (de_de), then its language (de), then the default
+    private Map<Message, Template> forLocale(Locale locale) {
+        if (locale == null) return defaultLocale;
+        return byClientLocale.computeIfAbsent(locale, key -> {
+            Map<Message, Template> match = locales.get(key.toString().toLowerCase(Locale.ROOT));
+            if (match == null) match = locales.get(key.getLanguage().toLowerCase(Locale.ROOT));
+            return match != null ? match : defaultLocale;
+        });
+    }
+
+    /**
+     * A parsed message. Text components containing slots are rebuilt on render with the
+     * same style; everything else is shared between renders.
+     */
+    private static final class Template {
+
+        private record Node(Component source, String[] texts, int[] slots, Node[] children) {
+
+            // texts[i] comes before slots[i]; texts has one more entry than slots
+            Component render(String[] values) {
+                if (texts == null && children == null) return source;
+
+                Component base = source;
+                if (texts != null) {
+                    StringBuilder content = new StringBuilder(texts[0]);
+                    for (int i = 0; i < slots.length; i++) {
+                        content.append(values[slots[i]]).append(texts[i + 1]);
+                    }
+                    base = Component.text(content.toString(), source.style());
+                }
+                if (children == null) return base;
+
+                List<Component> rendered = new ArrayList<>(children.length);
+                for (Node child : children) rendered.add(child.render(values));
+                return base.children(rendered);
+            }
+        }
+
+        private final Node root;
+
+        private Template(Node root) {
+            this.root = root;
+        }
+
+        static Template compile(Component component) {
+            return new Template(compileNode(component));
+        }
+
+        boolean hasSlots() {
+            return root.texts() != null || root.children() != null;
+        }
+
+        Component render(String[] values) {
+            return root.render(values);
+        }
+
+        // A node with null texts and children is fixed and rendered as the original component
+        private static Node compileNode(Component component) {
+            String[] texts = null;
+            int[] slots = null;
+            if (component instanceof TextComponent text) {
+                List<String> textParts = new ArrayList<>();
+                List<Integer> slotParts = new ArrayList<>();
+                String content = text.content();
+                int start = 0;
+                for (int i = 0; i < content.length(); i++) {
+                    char c = content.charAt(i);
+                    if (c >= SLOT_BASE && c < SLOT_BASE + 256) {
+                        textParts.add(content.substring(start, i));
+                        slotParts.add(c - SLOT_BASE);
+                        start = i + 1;
+                    }
+                }
+                if (!slotParts.isEmpty()) {
+                    textParts.add(content.substring(start));
+                    texts = textParts.toArray(new String[0]);
+                    slots = slotParts.stream().mapToInt(Integer::intValue).toArray();
+                }
+            }
+
+            List<Component> childComponents = component.children();
+            Node[] children = new Node[childComponents.size()];
+            boolean dynamicChildren = false;
+            for (int i = 0; i < children.length; i++) {
+                children[i] = compileNode(childComponents.get(i));
+                dynamicChildren |= children[i].texts() != null || children[i].children() != null;
+            }
+            // Children only need rebuilding if one of them has a slot; a text node with slots
+            // is rebuilt from scratch though, so it needs its children either way
+            if (!dynamicChildren && (texts == null || children.length == 0)) children = null;
+            return new Node(component, texts, slots, children);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.wager.config;
+
+import com.wager.utils.FormatUtil;
+
+import java.util.function.Function;
+
+/**
+ * A typed placeholder in a {@link Message}. The value is formatted by the placeholder, so
+ * callers pass plain numbers and names and every template shows them the same way.
+ * Values are inserted as plain text and never parsed as MiniMessage.
+ */
+public final class Param<T> {
+
+    public static final Param<String> OPPONENT = text("opponent");
+    public static final Param<String> REASON = text("reason");
+    public static final Param<String> WINNER = text("winner");
+    public static final Param<String> LOSER = text("loser");
+    public static final Param<Double> AMOUNT = money("amount");
+    public static final Param<Double> POT = money("pot");
+    public static final Param<Double> TAX = money("tax");
+    public static final Param<Double> WINNINGS = money("winnings");
+    public static final Param<Number> TAX_PERCENT = number("tax_percent");
+    public static final Param<Number> COUNT = number("count");
+
+    /**
+     * A placeholder with its value, ready to be substituted
+     */
+    public record Arg(Param<?> param, String value) {}
+
+    private final String name;
+    private final Function<T, String> formatter;
+
+    private Param(String name, Function<T, String> formatter) {
+        this.name = name;
+        this.formatter = formatter;
+    }
+
+    public static Param<String> text(String name) {
+        return new Param<>(name, value -> value);
+    }
+
+    public static Param<Double> money(String name) {
+        return new Param<>(name, FormatUtil::formatMoney);
+    }
+
+    public static Param<Number> number(String name) {
+        return new Param<>(name, String::valueOf);
+    }
+
+    public Arg with(T value) {
+        return new Arg(this, value != null ? formatter.apply(value) : "");
+    }
+
+    /**
+     * The tag used for this placeholder in messages.yml, without the angle brackets
+     */
+    public String getName() {
+        return name;
+    }
+}
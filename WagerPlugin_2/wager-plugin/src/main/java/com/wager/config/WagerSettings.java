@@ -0,0 +1,205 @@
+package com.wager.config;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable, validated snapshot of the gameplay settings in config.yml.
+ *
+ * Parsed once on enable and again on {@code /wager reload}; the plugin swaps the whole
+ * snapshot in one write, so readers always see a consistent set of values and hot paths
+ * read plain fields instead of walking the YAML tree.
+ */
+public final class WagerSettings {
+
+    private final double taxPercent;
+    private final double taxRate;
+    private final double minWager;
+    private final double maxWager;
+    private final int countdownSeconds;
+    private final List<Integer> presetAmounts;
+    private final double startingBalance;
+    private final String arenaWorld;
+    private final double matchTolerancePercent;
+    private final double matchWidenPercentPerSecond;
+    private final double matchMaxTolerancePercent;
+    private final long waitingTtlSeconds;
+    private final long maxMatchSeconds;
+    private final boolean compressPlayerSnapshots;
+
+    private WagerSettings(double taxPercent, double minWager, double maxWager, int countdownSeconds,
+                          List<Integer> presetAmounts, double startingBalance, String arenaWorld,
+                          double matchTolerancePercent, double matchWidenPercentPerSecond, double matchMaxTolerancePercent,
+                          long waitingTtlSeconds, long maxMatchSeconds, boolean compressPlayerSnapshots) {
+        this.taxPercent = taxPercent;
+        this.taxRate = taxPercent / 100.0;
+        this.minWager = minWager;
+        this.maxWager = maxWager;
+        this.countdownSeconds = countdownSeconds;
+        this.presetAmounts = List.copyOf(presetAmounts);
+        this.startingBalance = startingBalance;
+        this.arenaWorld = arenaWorld;
+        this.matchTolerancePercent = matchTolerancePercent;
+        this.matchWidenPercentPerSecond = matchWidenPercentPerSecond;
+        this.matchMaxTolerancePercent = matchMaxTolerancePercent;
+        this.waitingTtlSeconds = waitingTtlSeconds;
+        this.maxMatchSeconds = maxMatchSeconds;
+        this.compressPlayerSnapshots = compressPlayerSnapshots;
+    }
+
+    /**
+     * Parse and validate the settings. Throws {@link IllegalArgumentException} listing
+     * every problem found, so a bad reload can be rejected as a whole.
+     */
+    public static WagerSettings parse(ConfigurationSection config) {
+        List<String> errors = new ArrayList<>();
+
+        double taxPercent = config.getDouble("tax-percent", 3.0);
+        if (taxPercent < 0 || taxPercent > 100) {
+            errors.add("tax-percent must be between 0 and 100 (got " + taxPercent + ")");
+        }
+
+        double minWager = config.getDouble("min-wager", 100);
+        double maxWager = config.getDouble("max-wager", 1000000);
+        if (minWager <= 0) {
+            errors.add("min-wager must be positive (got " + minWager + ")");
+        }
+        if (maxWager < minWager) {
+            errors.add("max-wager must not be below min-wager (got " + maxWager + " < " + minWager + ")");
+        }
+
+        int countdownSeconds = config.getInt("countdown-seconds", 5);
+        if (countdownSeconds < 0) {
+            errors.add("countdown-seconds must not be negative (got " + countdownSeconds + ")");
+        }
+
+        List<Integer> presetAmounts = config.getIntegerList("preset-amounts");
+        for (int amount : presetAmounts) {
+            if (amount <= 0) {
+                errors.add("preset-amounts must all be positive (got " + amount + ")");
+                break;
+            }
+        }
+
+        double startingBalance = config.getDouble("starting-balance", 10000.0);
+        if (startingBalance < 0) {
+            errors.add("starting-balance must not be negative (got " + startingBalance + ")");
+        }
+
+        String arenaWorld = config.getString("arena-world", "wager_arenas");
+        if (arenaWorld == null || arenaWorld.isBlank()) {
+            errors.add("arena-world must not be empty");
+        }
+
+        double matchTolerance = config.getDouble("matchmaking.tolerance-percent", 5.0);
+        double matchWiden = config.getDouble("matchmaking.widen-percent-per-second", 1.0);
+        double matchMaxTolerance = config.getDouble("matchmaking.max-tolerance-percent", 25.0);
+        if (matchTolerance < 0 || matchWiden < 0 || matchMaxTolerance < 0) {
+            errors.add("matchmaking tolerances must not be negative");
+        }
+        if (matchMaxTolerance < matchTolerance) {
+            errors.add("matchmaking.max-tolerance-percent must not be below tolerance-percent");
+        }
+
+        // 0 disables either limit
+        long waitingTtl = config.getLong("waiting-wager-ttl", 600);
+        long maxMatch = config.getLong("max-match-duration", 600);
+        if (waitingTtl < 0) {
+            errors.add("waiting-wager-ttl must not be negative (got " + waitingTtl + ")");
+        }
+        if (maxMatch < 0) {
+            errors.add("max-match-duration must not be negative (got " + maxMatch + ")");
+        }
+
+        boolean compressSnapshots = config.getBoolean("compress-player-snapshots", true);
+
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException(String.join("; ", errors));
+        }
+        return new WagerSettings(taxPercent, minWager, maxWager, countdownSeconds,
+                presetAmounts, startingBalance, arenaWorld, matchTolerance, matchWiden, matchMaxTolerance,
+                waitingTtl, maxMatch, compressSnapshots);
+    }
+
+    /**
+     * Built-in defaults, used if config.yml is invalid on startup
+     */
+    public static WagerSettings defaults() {
+        return new WagerSettings(3.0, 100, 1000000, 5,
+                List.of(100, 500, 1000, 5000, 10000, 50000, 100000), 10000.0, "wager_arenas",
+                5.0, 1.0, 25.0, 600, 600, true);
+    }
+
+    public double getTaxPercent() {
+        return taxPercent;
+    }
+
+    /**
+     * Tax as a fraction of the pot (tax-percent / 100)
+     */
+    public double getTaxRate() {
+        return taxRate;
+    }
+
+    public double getMinWager() {
+        return minWager;
+    }
+
+    public double getMaxWager() {
+        return maxWager;
+    }
+
+    public int getCountdownSeconds() {
+        return countdownSeconds;
+    }
+
+    public List<Integer> getPresetAmounts() {
+        return presetAmounts;
+    }
+
+    public double getStartingBalance() {
+        return startingBalance;
+    }
+
+    public String getArenaWorld() {
+        return arenaWorld;
+    }
+
+    /**
+     * Stake difference (percent of the stake) matchmaking accepts straight away
+     */
+    public double getMatchTolerancePercent() {
+        return matchTolerancePercent;
+    }
+
+    public double getMatchWidenPercentPerSecond() {
+        return matchWidenPercentPerSecond;
+    }
+
+    public double getMatchMaxTolerancePercent() {
+        return matchMaxTolerancePercent;
+    }
+
+    /**
+     * Seconds a wager may wait for an opponent before it's refunded (0 = forever)
+     */
+    public long getWaitingTtlSeconds() {
+        return waitingTtlSeconds;
+    }
+
+    /**
+     * Seconds a fight may last before it's called off and refunded (0 = no limit)
+     */
+    public long getMaxMatchSeconds() {
+        return maxMatchSeconds;
+    }
+
+    /**
+     * Whether saved fighter inventories are deflated while they're held
+     */
+    public boolean isCompressPlayerSnapshots() {
+        return compressPlayerSnapshots;
+    }
+}
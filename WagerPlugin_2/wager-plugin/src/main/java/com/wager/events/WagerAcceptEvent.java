@@ -0,0 +1,30 @@
+package com.wager.events;
+
+import com.wager.managers.Wager;
+import org.bukkit.event.HandlerList;
+
+/**
+ * Fired when both stakes are in escrow, whether the match was accepted from the menu or paired by matchmaking
+ */
+public class WagerAcceptEvent extends WagerEvent {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    public WagerAcceptEvent(Wager wager) {
+        super(wager);
+    }
+
+    @Override
+    public WagerUpdate toUpdate() {
+        return update(WagerUpdate.Kind.ACCEPTED, null, 0, null);
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
@@ -0,0 +1,38 @@
+package com.wager.events;
+
+import com.wager.managers.Wager;
+import org.bukkit.event.HandlerList;
+
+/**
+ * Fired when a wager is called off (cancelled, expired, a player left or the server is
+ * stopping) and every stake in escrow has been refunded
+ */
+public class WagerCancelEvent extends WagerEvent {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final String reason;
+
+    public WagerCancelEvent(Wager wager, String reason) {
+        super(wager);
+        this.reason = reason;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    @Override
+    public WagerUpdate toUpdate() {
+        return update(WagerUpdate.Kind.CANCELLED, null, 0, reason);
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
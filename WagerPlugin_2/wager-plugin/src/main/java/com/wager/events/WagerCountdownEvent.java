@@ -0,0 +1,30 @@
+package com.wager.events;
+
+import com.wager.managers.Wager;
+import org.bukkit.event.HandlerList;
+
+/**
+ * Fired when the fighters have been sent to the arena and the countdown begins
+ */
+public class WagerCountdownEvent extends WagerEvent {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    public WagerCountdownEvent(Wager wager) {
+        super(wager);
+    }
+
+    @Override
+    public WagerUpdate toUpdate() {
+        return update(WagerUpdate.Kind.COUNTDOWN, null, 0, null);
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
@@ -0,0 +1,30 @@
+package com.wager.events;
+
+import com.wager.managers.Wager;
+import org.bukkit.event.HandlerList;
+
+/**
+ * Fired when a wager is listed and starts waiting for an opponent
+ */
+public class WagerCreateEvent extends WagerEvent {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    public WagerCreateEvent(Wager wager) {
+        super(wager);
+    }
+
+    @Override
+    public WagerUpdate toUpdate() {
+        return update(WagerUpdate.Kind.CREATED, null, 0, null);
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
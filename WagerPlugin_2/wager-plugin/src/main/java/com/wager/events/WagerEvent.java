@@ -0,0 +1,37 @@
+package com.wager.events;
+
+import com.wager.managers.Wager;
+import org.bukkit.event.Event;
+
+import java.util.UUID;
+
+/**
+ * Base class for the wager lifecycle events. One subclass is fired for each state a wager
+ * moves into; they are informational and can't be cancelled.
+ *
+ * Handlers run on the thread that owns the transition (the main thread, or a region
+ * thread on Folia) and must be quick. Integrations doing I/O should subscribe through
+ * {@link WagerEventBus#subscribe} instead.
+ */
+public abstract class WagerEvent extends Event {
+
+    private final Wager wager;
+
+    protected WagerEvent(Wager wager) {
+        this.wager = wager;
+    }
+
+    public Wager getWager() {
+        return wager;
+    }
+
+    /**
+     * Immutable copy of this event for off-thread subscribers
+     */
+    public abstract WagerUpdate toUpdate();
+
+    protected WagerUpdate update(WagerUpdate.Kind kind, UUID winner, double payout, String reason) {
+        return new WagerUpdate(kind, wager.getId(), wager.getState(), wager.getCreator(), wager.getOpponent(),
+                wager.getAmount(), wager.getKitId(), wager.getArenaId(), winner, payout, reason, System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,165 @@
+package com.wager.events;
+
+import com.wager.WagerPlugin;
+import com.wager.utils.SchedulerUtil;
+import org.bukkit.Bukkit;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * Publishes wager lifecycle events.
+ *
+ * Each event is fired as a Bukkit event and also handed, as an immutable
+ * {@link WagerUpdate}, to every subscriber. Subscribers get a bounded queue drained on a
+ * shared worker pool, so publishing never blocks or waits on them: when a subscriber
+ * falls behind and its queue is full, new updates for it are dropped and counted.
+ * Updates reach each subscriber one at a time, in publish order.
+ */
+public class WagerEventBus {
+
+    /**
+     * A registered consumer. Cancel it to stop receiving updates.
+     */
+    public final class Subscription {
+        private final String name;
+        private final Consumer<WagerUpdate> consumer;
+        private final BlockingQueue<WagerUpdate> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicLong dropped = new AtomicLong();
+        private volatile boolean cancelled = false;
+
+        private Subscription(String name, int capacity, Consumer<WagerUpdate> consumer) {
+            this.name = name;
+            this.consumer = consumer;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+            queue.clear();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Updates discarded because this subscriber's queue was full
+         */
+        public long getDropped() {
+            return dropped.get();
+        }
+
+        public int getPending() {
+            return queue.size();
+        }
+
+        private void offer(WagerUpdate update) {
+            if (!queue.offer(update)) {
+                long total = dropped.incrementAndGet();
+                // Log the first drop and then every power of two, not every update
+                if ((total & (total - 1)) == 0) {
+                    plugin.getLogger().warning("Wager event subscriber '" + name + "' is falling behind; "
+                            + total + " updates dropped so far");
+                }
+                return;
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (!queue.isEmpty() && draining.compareAndSet(false, true)) {
+                try {
+                    workers.execute(this::drain);
+                } catch (RuntimeException e) {
+                    // Pool shut down; nothing will deliver these any more
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            WagerUpdate update;
+            while (!cancelled && (update = queue.poll()) != null) {
+                try {
+                    consumer.accept(update);
+                } catch (Throwable t) {
+                    plugin.getLogger().log(Level.WARNING, "Wager event subscriber '" + name + "' failed", t);
+                }
+            }
+            draining.set(false);
+            // An update offered after the last poll but before the flag was cleared
+            if (!cancelled) schedule();
+        }
+    }
+
+    private final WagerPlugin plugin;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final ExecutorService workers;
+
+    public WagerEventBus(WagerPlugin plugin, int threads) {
+        this.plugin = plugin;
+        AtomicInteger counter = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "WagerPlugin-Events-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Receive every wager update on a worker thread. At most {@code capacity} updates are
+     * buffered for this subscriber; beyond that new ones are dropped.
+     */
+    public Subscription subscribe(String name, int capacity, Consumer<WagerUpdate> consumer) {
+        Subscription subscription = new Subscription(name, Math.max(1, capacity), consumer);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    /**
+     * Fire the Bukkit event and queue the update for subscribers. Never blocks.
+     */
+    public void publish(WagerEvent event) {
+        // While disabling the server is stopping, so events may be called from any thread
+        if (Bukkit.isPrimaryThread() || !plugin.isEnabled()) {
+            Bukkit.getPluginManager().callEvent(event);
+        } else {
+            SchedulerUtil.runTask(plugin, () -> Bukkit.getPluginManager().callEvent(event));
+        }
+
+        if (subscriptions.isEmpty()) return;
+        WagerUpdate update = event.toUpdate();
+        for (Subscription subscription : subscriptions) {
+            subscription.offer(update);
+        }
+    }
+
+    /**
+     * Give subscribers a moment to drain what's queued, then stop the workers
+     */
+    public void shutdown(long timeout, TimeUnit unit) {
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(timeout, unit)) {
+                plugin.getLogger().warning("Wager event subscribers did not finish in time");
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        subscriptions.clear();
+    }
+}
@@ -0,0 +1,55 @@
+package com.wager.events;
+
+import com.wager.managers.EscrowManager;
+import com.wager.managers.Wager;
+import org.bukkit.event.HandlerList;
+
+import java.util.UUID;
+
+/**
+ * Fired when a fight ends with a winner (by kill or forfeit) and the pot has been paid out
+ */
+public class WagerFinishEvent extends WagerEvent {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final UUID winner;
+    private final UUID loser;
+    private final EscrowManager.Settlement settlement;
+
+    public WagerFinishEvent(Wager wager, UUID winner, UUID loser, EscrowManager.Settlement settlement) {
+        super(wager);
+        this.winner = winner;
+        this.loser = loser;
+        this.settlement = settlement;
+    }
+
+    public UUID getWinner() {
+        return winner;
+    }
+
+    public UUID getLoser() {
+        return loser;
+    }
+
+    /**
+     * Pot, tax and payout
+     */
+    public EscrowManager.Settlement getSettlement() {
+        return settlement;
+    }
+
+    @Override
+    public WagerUpdate toUpdate() {
+        return update(WagerUpdate.Kind.FINISHED, winner, settlement.payout(), null);
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
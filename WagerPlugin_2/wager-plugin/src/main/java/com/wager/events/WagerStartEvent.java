@@ -0,0 +1,30 @@
+package com.wager.events;
+
+import com.wager.managers.Wager;
+import org.bukkit.event.HandlerList;
+
+/**
+ * Fired when the countdown ends and the fight starts
+ */
+public class WagerStartEvent extends WagerEvent {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    public WagerStartEvent(Wager wager) {
+        super(wager);
+    }
+
+    @Override
+    public WagerUpdate toUpdate() {
+        return update(WagerUpdate.Kind.STARTED, null, 0, null);
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
@@ -0,0 +1,34 @@
+package com.wager.events;
+
+import com.wager.managers.Wager;
+
+import java.util.UUID;
+
+/**
+ * Immutable snapshot of a wager lifecycle event, delivered to {@link WagerEventBus} subscribers.
+ *
+ * @param winner set for {@link Kind#FINISHED}
+ * @param payout what the winner received after tax, for {@link Kind#FINISHED}
+ * @param reason set for {@link Kind#CANCELLED}
+ */
+public record WagerUpdate(Kind kind, UUID wagerId, Wager.WagerState state, UUID creator, UUID opponent,
+                          double amount, String kitId, String arenaId, UUID winner, double payout,
+                          String reason, long timestamp) {
+
+    public enum Kind {
+        CREATED,    // Listed, waiting for an opponent
+        ACCEPTED,   // Both stakes in escrow, waiting for an arena
+        COUNTDOWN,  // Fighters in the arena, counting down
+        STARTED,    // Fight started
+        FINISHED,   // Someone won and the pot was paid
+        CANCELLED   // Called off and refunded
+    }
+
+    /**
+     * The losing fighter, for {@link Kind#FINISHED}
+     */
+    public UUID loser() {
+        if (winner == null) return null;
+        return winner.equals(creator) ? opponent : creator;
+    }
+}
@@ -1,11 +1,18 @@
 package com.wager.gui;
 
 import com.wager.WagerPlugin;
+import com.wager.config.Kit;
+import com.wager.managers.Leaderboards;
+import com.wager.managers.PlayerStats;
+import com.wager.managers.RankedBoard;
+import com.wager.managers.WaitingWagerIndex;
 import com.wager.managers.Wager;
 import com.wager.utils.FormatUtil;
+import com.wager.utils.SchedulerUtil;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
+import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemFlag;
@@ -14,6 +21,8 @@ import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.inventory.meta.SkullMeta;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 public class GUIManager {
 
@@ -22,10 +31,24 @@ public class GUIManager {
     public static final String CREATE_WAGER_TITLE = ChatColor.DARK_GRAY + "⚔ " + ChatColor.GREEN + "" + ChatColor.BOLD + "Create Wager";
     public static final String CONFIRM_ACCEPT_TITLE = ChatColor.DARK_GRAY + "⚔ " + ChatColor.YELLOW + "" + ChatColor.BOLD + "Confirm Wager";
     public static final String CONFIRM_CANCEL_TITLE = ChatColor.DARK_GRAY + "⚔ " + ChatColor.RED + "" + ChatColor.BOLD + "Cancel Wager?";
+    public static final String LEADERBOARD_TITLE = ChatColor.DARK_GRAY + "⚔ " + ChatColor.AQUA + "" + ChatColor.BOLD + "Leaderboards";
+
+    // Slots of a leaderboard page, in rank order
+    private static final int[] LEADERBOARD_SLOTS = {
+            10, 11, 12, 13, 14, 15, 16, 19, 20, 21, 22, 23, 24, 25,
+            28, 29, 30, 31, 32, 33, 34, 37, 38, 39, 40, 41, 42, 43
+    };
 
     // Store pending data
     private static final Map<UUID, UUID> pendingAccepts = new HashMap<>(); // player -> wagerId
     private static final Map<UUID, Double> pendingCustomAmounts = new HashMap<>();
+    private static final Map<UUID, WaitingWagerIndex.Snapshot> shownListings = new ConcurrentHashMap<>(); // player -> listing on screen
+    private static final Map<UUID, String> selectedKits = new ConcurrentHashMap<>(); // player -> kit id for their next wager
+    private static final Map<UUID, Leaderboards.Page> shownBoards = new ConcurrentHashMap<>(); // player -> leaderboard page on screen
+
+    // Heads built for a leaderboard page, reused while that page is still current
+    private record RenderedPage(Leaderboards.Page page, ItemStack[] heads) {}
+    private static final Map<String, RenderedPage> renderedPages = new ConcurrentHashMap<>();
 
     /**
      * Open main wager menu
@@ -52,11 +75,10 @@ public class GUIManager {
                 )));
 
         // Player balance info
-        double balance = plugin.getEconomyManager().getBalance(player);
-        gui.setItem(49, createItem(Material.GOLD_INGOT, ChatColor.GOLD + "" + ChatColor.BOLD + "Your Balance",
+        showBalance(player, gui, text -> createItem(Material.GOLD_INGOT, ChatColor.GOLD + "" + ChatColor.BOLD + "Your Balance",
                 Arrays.asList(
                         "",
-                        ChatColor.GRAY + "Balance: " + ChatColor.GREEN + FormatUtil.formatMoney(balance),
+                        ChatColor.GRAY + "Balance: " + ChatColor.GREEN + text,
                         ""
                 )));
 
@@ -64,17 +86,23 @@ public class GUIManager {
         gui.setItem(48, createItem(Material.PAPER, ChatColor.YELLOW + "ℹ Tax Info",
                 Arrays.asList(
                         "",
-                        ChatColor.GRAY + "Winners are taxed " + ChatColor.YELLOW + plugin.getConfig().getDouble("tax-percent") + "%" + ChatColor.GRAY + " of the pot",
+                        ChatColor.GRAY + "Winners are taxed " + ChatColor.YELLOW + plugin.getSettings().getTaxPercent() + "%" + ChatColor.GRAY + " of the pot",
                         ChatColor.GRAY + "Example: " + ChatColor.WHITE + "$1,000" + ChatColor.GRAY + " wager each = ",
                         ChatColor.GRAY + "$2,000 pot - " + ChatColor.RED + "$60 tax" + ChatColor.GRAY + " = " + ChatColor.GREEN + "$1,940 winnings",
                         ""
                 )));
 
+        // Leaderboards
+        gui.setItem(52, createItem(Material.NETHER_STAR, ChatColor.AQUA + "" + ChatColor.BOLD + "Leaderboards",
+                Arrays.asList("", ChatColor.GRAY + "Top players by winnings,", ChatColor.GRAY + "wins and rating", "")));
+
         // Refresh button
         gui.setItem(50, createItem(Material.COMPASS, ChatColor.AQUA + "↻ Refresh", Arrays.asList("", ChatColor.GRAY + "Click to refresh the list")));
 
         // Active wager listings
-        List<Wager> waitingWagers = plugin.getWagerManager().getWaitingWagers();
+        WaitingWagerIndex.Snapshot listing = plugin.getWagerManager().getWaitingSnapshot();
+        List<Wager> waitingWagers = listing.wagers();
+        shownListings.put(player.getUniqueId(), listing);
         int slot = 10;
         int count = 0;
 
@@ -97,6 +125,7 @@ public class GUIManager {
                 lore.add("");
                 lore.add(ChatColor.GRAY + "Wager: " + ChatColor.GREEN + "" + ChatColor.BOLD + FormatUtil.formatMoney(wager.getAmount()));
                 lore.add(ChatColor.GRAY + "Potential Win: " + ChatColor.GOLD + FormatUtil.formatMoney(plugin.getEconomyManager().calculateWinnings(wager.getAmount())));
+                lore.add(ChatColor.GRAY + "Kit: " + ChatColor.WHITE + plugin.getKits().get(wager.getKitId()).getDisplayName());
                 lore.add("");
 
                 if (isOwn) {
@@ -141,11 +170,11 @@ public class GUIManager {
                 Arrays.asList("", ChatColor.GRAY + "Choose a preset or enter custom", "")));
 
         // Balance
-        double balance = plugin.getEconomyManager().getBalance(player);
-        gui.setItem(49, createItem(Material.GOLD_INGOT, ChatColor.GOLD + "Balance: " + FormatUtil.formatMoney(balance), null));
+        // Unknown until the provider answers; the withdrawal still checks, so offer every preset meanwhile
+        Double balance = showBalance(player, gui, text -> createItem(Material.GOLD_INGOT, ChatColor.GOLD + "Balance: " + text, null));
 
         // Preset amounts
-        List<Integer> presets = plugin.getConfig().getIntegerList("preset-amounts");
+        List<Integer> presets = plugin.getSettings().getPresetAmounts();
         Material[] materials = {
                 Material.IRON_NUGGET, Material.IRON_INGOT, Material.GOLD_NUGGET,
                 Material.GOLD_INGOT, Material.DIAMOND, Material.EMERALD, Material.NETHERITE_INGOT
@@ -154,7 +183,7 @@ public class GUIManager {
         int[] presetSlots = {19, 20, 21, 22, 23, 24, 25};
         for (int i = 0; i < Math.min(presets.size(), presetSlots.length); i++) {
             int amount = presets.get(i);
-            boolean canAfford = balance >= amount;
+            boolean canAfford = balance == null || balance >= amount;
             Material mat = canAfford ? materials[Math.min(i, materials.length - 1)] : Material.GRAY_DYE;
 
             List<String> lore = new ArrayList<>();
@@ -185,6 +214,18 @@ public class GUIManager {
                         ""
                 )));
 
+        // Kit selector
+        List<Kit> kits = plugin.getKits().getKits();
+        Kit selected = plugin.getKits().get(selectedKits.get(player.getUniqueId()));
+        List<String> kitLore = new ArrayList<>();
+        kitLore.add("");
+        for (Kit kit : kits) {
+            kitLore.add((kit == selected ? ChatColor.GREEN + "▶ " : ChatColor.GRAY + "  ") + ChatColor.stripColor(kit.getDisplayName()));
+        }
+        kitLore.add("");
+        if (kits.size() > 1) kitLore.add(ChatColor.YELLOW + "▶ Click to change kit");
+        gui.setItem(40, createItem(selected.getIcon(), ChatColor.AQUA + "" + ChatColor.BOLD + "Kit: " + ChatColor.RESET + selected.getDisplayName(), kitLore));
+
         // Back button
         gui.setItem(45, createItem(Material.ARROW, ChatColor.RED + "← Back", Arrays.asList("", ChatColor.GRAY + "Return to wager menu")));
 
@@ -223,9 +264,19 @@ public class GUIManager {
                         ChatColor.GRAY + "Pot: " + ChatColor.GOLD + FormatUtil.formatMoney(wager.getAmount() * 2),
                         ChatColor.GRAY + "Tax: " + ChatColor.RED + FormatUtil.formatMoney(tax),
                         ChatColor.GRAY + "Win: " + ChatColor.GREEN + FormatUtil.formatMoney(winnings),
+                        ChatColor.GRAY + "Kit: " + ChatColor.WHITE + plugin.getKits().get(wager.getKitId()).getDisplayName(),
                         ""
                 )));
 
+        // Opponent's record, from memory only; a missing record is loaded for next time
+        ItemStack opponentHead = new ItemStack(Material.PLAYER_HEAD);
+        SkullMeta opponentMeta = (SkullMeta) opponentHead.getItemMeta();
+        opponentMeta.setOwningPlayer(Bukkit.getOfflinePlayer(wager.getCreator()));
+        opponentMeta.setDisplayName(ChatColor.AQUA + "" + ChatColor.BOLD + wager.getCreatorName());
+        opponentMeta.setLore(statsLore(wager.getCreator()));
+        opponentHead.setItemMeta(opponentMeta);
+        gui.setItem(13, opponentHead);
+
         // Confirm button
         gui.setItem(11, createItem(Material.LIME_WOOL, ChatColor.GREEN + "" + ChatColor.BOLD + "✔ ACCEPT WAGER",
                 Arrays.asList(
@@ -273,12 +324,139 @@ public class GUIManager {
         player.openInventory(gui);
     }
 
+    /**
+     * Open a page of a leaderboard
+     */
+    public static void openLeaderboardMenu(Player player, Leaderboards.Category category, int page) {
+        WagerPlugin plugin = WagerPlugin.getInstance();
+        Leaderboards leaderboards = plugin.getStatsManager().getLeaderboards();
+        Leaderboards.Page shown = leaderboards.getPage(category, page);
+        Inventory gui = Bukkit.createInventory(null, 54, LEADERBOARD_TITLE);
+        shownBoards.put(player.getUniqueId(), shown);
+
+        ItemStack border = createItem(Material.BLACK_STAINED_GLASS_PANE, " ", null);
+        for (int i = 0; i < 9; i++) gui.setItem(i, border);
+        for (int i = 45; i < 54; i++) gui.setItem(i, border);
+        for (int i = 9; i < 45; i += 9) gui.setItem(i, border);
+        for (int i = 17; i < 54; i += 9) gui.setItem(i, border);
+
+        ItemStack[] heads = renderLeaderboardPage(shown);
+        for (int i = 0; i < heads.length; i++) gui.setItem(LEADERBOARD_SLOTS[i], heads[i]);
+        if (heads.length == 0) {
+            gui.setItem(22, createItem(Material.BARRIER, ChatColor.GRAY + "No matches played yet", null));
+        }
+
+        // The viewer's own rank
+        int rank = leaderboards.rank(category, player.getUniqueId());
+        gui.setItem(4, createItem(Material.PAPER, ChatColor.GOLD + "" + ChatColor.BOLD + category.getDisplayName(),
+                Arrays.asList(
+                        "",
+                        ChatColor.GRAY + "Your rank: " + (rank > 0 ? ChatColor.YELLOW + "#" + rank : ChatColor.DARK_GRAY + "unranked"),
+                        ChatColor.GRAY + "Page " + ChatColor.WHITE + (shown.page() + 1) + ChatColor.GRAY + " of " + ChatColor.WHITE + shown.totalPages(),
+                        ""
+                )));
+
+        gui.setItem(46, createItem(Material.BARRIER, ChatColor.RED + "← Back", Arrays.asList("", ChatColor.GRAY + "Return to wager menu")));
+        gui.setItem(48, categoryButton(Material.GOLD_INGOT, Leaderboards.Category.PROFIT, category));
+        gui.setItem(49, categoryButton(Material.DIAMOND_SWORD, Leaderboards.Category.WINS, category));
+        gui.setItem(50, categoryButton(Material.NETHER_STAR, Leaderboards.Category.RATING, category));
+        if (shown.page() > 0) {
+            gui.setItem(45, createItem(Material.ARROW, ChatColor.YELLOW + "← Previous Page", null));
+        }
+        if (shown.page() + 1 < shown.totalPages()) {
+            gui.setItem(53, createItem(Material.ARROW, ChatColor.YELLOW + "Next Page →", null));
+        }
+
+        player.openInventory(gui);
+    }
+
+    private static ItemStack[] renderLeaderboardPage(Leaderboards.Page page) {
+        String key = page.category() + ":" + page.page();
+        RenderedPage rendered = renderedPages.get(key);
+        if (rendered != null && rendered.page() == page) return rendered.heads();
+
+        List<RankedBoard.Entry> entries = page.entries();
+        ItemStack[] heads = new ItemStack[entries.size()];
+        for (int i = 0; i < heads.length; i++) {
+            RankedBoard.Entry entry = entries.get(i);
+            OfflinePlayer owner = Bukkit.getOfflinePlayer(entry.playerId());
+            String name = owner.getName() != null ? owner.getName() : "Unknown";
+
+            ItemStack head = new ItemStack(Material.PLAYER_HEAD);
+            SkullMeta meta = (SkullMeta) head.getItemMeta();
+            meta.setOwningPlayer(owner);
+            meta.setDisplayName(ChatColor.YELLOW + "#" + entry.rank() + " " + ChatColor.AQUA + ChatColor.BOLD + name);
+            meta.setLore(Arrays.asList("", ChatColor.GRAY + page.category().getDisplayName() + ": "
+                    + ChatColor.WHITE + page.category().format(entry.score()), ""));
+            head.setItemMeta(meta);
+            heads[i] = head;
+        }
+        renderedPages.put(key, new RenderedPage(page, heads));
+        return heads;
+    }
+
+    private static ItemStack categoryButton(Material material, Leaderboards.Category category, Leaderboards.Category selected) {
+        boolean active = category == selected;
+        return createItem(material, (active ? ChatColor.GREEN : ChatColor.GRAY) + "" + ChatColor.BOLD + category.getDisplayName(),
+                Arrays.asList("", active ? ChatColor.GREEN + "▶ Showing" : ChatColor.YELLOW + "▶ Click to view"));
+    }
+
     // --- Utility ---
 
+    private static List<String> statsLore(UUID playerId) {
+        PlayerStats stats = WagerPlugin.getInstance().getStatsManager().getCached(playerId);
+        if (stats == null) {
+            WagerPlugin.getInstance().getStatsManager().warm(playerId);
+            return Arrays.asList("", ChatColor.GRAY + "Loading stats...", "");
+        }
+        ChatColor profitColor = stats.profit() < 0 ? ChatColor.RED : ChatColor.GREEN;
+        return Arrays.asList(
+                "",
+                ChatColor.GRAY + "Rating: " + ChatColor.GOLD + Math.round(stats.rating()),
+                ChatColor.GRAY + "Record: " + ChatColor.GREEN + stats.wins() + "W " + ChatColor.RED + stats.losses() + "L"
+                        + ChatColor.GRAY + " (" + Math.round(stats.winRate()) + "%)",
+                ChatColor.GRAY + "Profit: " + profitColor + (stats.profit() < 0 ? "-" : "+") + FormatUtil.formatMoney(Math.abs(stats.profit())),
+                ""
+        );
+    }
+
+    /**
+     * Put the balance item in slot 49 without waiting on the economy provider. On a cache miss
+     * it shows a placeholder and swaps in the real balance once it loads, if the menu is still open.
+     *
+     * @return the cached balance, or null if it is still loading
+     */
+    private static Double showBalance(Player player, Inventory gui, Function<String, ItemStack> item) {
+        WagerPlugin plugin = WagerPlugin.getInstance();
+        Double balance = plugin.getEconomyManager().getCachedBalance(player);
+        if (balance != null) {
+            gui.setItem(49, item.apply(FormatUtil.formatMoney(balance)));
+            return balance;
+        }
+        gui.setItem(49, item.apply(ChatColor.GRAY + "Loading..."));
+        plugin.getEconomyManager().getBalanceAsync(player).thenAccept(loaded -> SchedulerUtil.runEntityTask(plugin, player, () -> {
+            if (player.getOpenInventory().getTopInventory() == gui) {
+                gui.setItem(49, item.apply(FormatUtil.formatMoney(loaded)));
+            }
+        }));
+        return null;
+    }
+
     public static UUID getPendingAccept(UUID playerId) {
         return pendingAccepts.get(playerId);
     }
 
+    /**
+     * The waiting-wager listing this player's main menu was built from
+     */
+    public static WaitingWagerIndex.Snapshot getShownListing(UUID playerId) {
+        return shownListings.get(playerId);
+    }
+
+    public static void removeShownListing(UUID playerId) {
+        shownListings.remove(playerId);
+    }
+
     public static void removePendingAccept(UUID playerId) {
         pendingAccepts.remove(playerId);
     }
@@ -295,6 +473,32 @@ public class GUIManager {
         pendingCustomAmounts.remove(playerId);
     }
 
+    /**
+     * Kit picked in the create menu, or null for the default
+     */
+    public static String getSelectedKit(UUID playerId) {
+        return selectedKits.get(playerId);
+    }
+
+    public static void setSelectedKit(UUID playerId, String kitId) {
+        selectedKits.put(playerId, kitId);
+    }
+
+    public static void removeSelectedKit(UUID playerId) {
+        selectedKits.remove(playerId);
+    }
+
+    /**
+     * The leaderboard page this player has open
+     */
+    public static Leaderboards.Page getShownBoard(UUID playerId) {
+        return shownBoards.get(playerId);
+    }
+
+    public static void removeShownBoard(UUID playerId) {
+        shownBoards.remove(playerId);
+    }
+
     private static ItemStack createItem(Material material, String name, List<String> lore) {
         ItemStack item = new ItemStack(material);
         ItemMeta meta = item.getItemMeta();
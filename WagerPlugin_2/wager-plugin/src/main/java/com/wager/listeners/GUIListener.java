@@ -1,7 +1,10 @@
 package com.wager.listeners;
 
 import com.wager.WagerPlugin;
+import com.wager.config.Kit;
 import com.wager.gui.GUIManager;
+import com.wager.managers.Leaderboards;
+import com.wager.managers.WaitingWagerIndex;
 import com.wager.managers.Wager;
 import com.wager.utils.FormatUtil;
 import org.bukkit.ChatColor;
@@ -55,6 +58,13 @@ public class GUIListener implements Listener {
             handleConfirmCancel(player, event);
             return;
         }
+
+        // Handle leaderboards
+        if (title.equals(GUIManager.LEADERBOARD_TITLE)) {
+            event.setCancelled(true);
+            handleLeaderboard(player, event);
+            return;
+        }
     }
 
     private void handleMainMenu(Player player, InventoryClickEvent event) {
@@ -75,13 +85,19 @@ public class GUIListener implements Listener {
             return;
         }
 
+        // Leaderboards button (slot 52)
+        if (slot == 52 && clicked.getType() == Material.NETHER_STAR) {
+            GUIManager.openLeaderboardMenu(player, Leaderboards.Category.RATING, 0);
+            return;
+        }
+
         // Player head = wager listing
         if (clicked.getType() == Material.PLAYER_HEAD && slot >= 10 && slot <= 43) {
-            // Find which wager this is based on position
-            List<Wager> waitingWagers = plugin.getWagerManager().getWaitingWagers();
-            int index = getWagerIndexFromSlot(slot);
-            if (index >= 0 && index < waitingWagers.size()) {
-                Wager wager = waitingWagers.get(index);
+            // Resolve the slot against the listing the player is looking at, not the current one
+            WaitingWagerIndex.Snapshot listing = GUIManager.getShownListing(player.getUniqueId());
+            if (listing == null) listing = plugin.getWagerManager().getWaitingSnapshot();
+            Wager wager = listing.get(getWagerIndexFromSlot(slot));
+            if (wager != null) {
 
                 if (wager.getCreator().equals(player.getUniqueId())) {
                     // Own wager - open cancel confirm
@@ -96,6 +112,34 @@ public class GUIListener implements Listener {
         }
     }
 
+    private void handleLeaderboard(Player player, InventoryClickEvent event) {
+        ItemStack clicked = event.getCurrentItem();
+        if (clicked == null || clicked.getType() == Material.AIR) return;
+        int slot = event.getRawSlot();
+
+        Leaderboards.Page shown = GUIManager.getShownBoard(player.getUniqueId());
+        Leaderboards.Category category = shown != null ? shown.category() : Leaderboards.Category.RATING;
+        int page = shown != null ? shown.page() : 0;
+
+        switch (slot) {
+            case 45 -> {
+                if (clicked.getType() == Material.ARROW) GUIManager.openLeaderboardMenu(player, category, page - 1);
+            }
+            case 53 -> {
+                if (clicked.getType() == Material.ARROW) GUIManager.openLeaderboardMenu(player, category, page + 1);
+            }
+            case 46 -> {
+                GUIManager.removeShownBoard(player.getUniqueId());
+                GUIManager.openMainMenu(player);
+            }
+            case 48 -> GUIManager.openLeaderboardMenu(player, Leaderboards.Category.PROFIT, 0);
+            case 49 -> GUIManager.openLeaderboardMenu(player, Leaderboards.Category.WINS, 0);
+            case 50 -> GUIManager.openLeaderboardMenu(player, Leaderboards.Category.RATING, 0);
+            default -> {
+            }
+        }
+    }
+
     private void handleCreateMenu(Player player, InventoryClickEvent event) {
         ItemStack clicked = event.getCurrentItem();
         if (clicked == null || clicked.getType() == Material.AIR) return;
@@ -122,9 +166,20 @@ public class GUIListener implements Listener {
             return;
         }
 
+        // Kit selector: cycle to the next kit
+        if (slot == 40) {
+            List<Kit> kits = plugin.getKits().getKits();
+            if (kits.size() < 2) return;
+            Kit current = plugin.getKits().get(GUIManager.getSelectedKit(player.getUniqueId()));
+            Kit next = kits.get((kits.indexOf(current) + 1) % kits.size());
+            GUIManager.setSelectedKit(player.getUniqueId(), next.getId());
+            GUIManager.openCreateWagerMenu(player);
+            return;
+        }
+
         // Preset amount buttons
         int[] presetSlots = {19, 20, 21, 22, 23, 24, 25};
-        List<Integer> presets = plugin.getConfig().getIntegerList("preset-amounts");
+        List<Integer> presets = plugin.getSettings().getPresetAmounts();
 
         for (int i = 0; i < presetSlots.length; i++) {
             if (slot == presetSlots[i] && i < presets.size()) {
@@ -134,7 +189,7 @@ public class GUIListener implements Listener {
                 }
                 double amount = presets.get(i);
                 player.closeInventory();
-                plugin.getWagerManager().createWager(player, amount);
+                plugin.getWagerManager().createWager(player, amount, GUIManager.getSelectedKit(player.getUniqueId()));
                 return;
             }
         }
@@ -11,6 +11,7 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.PlayerDeathEvent;
 import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.player.PlayerRespawnEvent;
 
@@ -54,6 +55,15 @@ public class PlayerListener implements Listener {
         }
     }
 
+    @EventHandler
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        plugin.getEconomyManager().warmCache(event.getPlayer());
+        plugin.getSettlementQueue().handleJoin(event.getPlayer());
+        plugin.getWagerManager().handleJoin(event.getPlayer());
+        plugin.getStatsManager().warm(event.getPlayer().getUniqueId());
+        plugin.getSpectatorManager().handleJoin(event.getPlayer());
+    }
+
     @EventHandler
     public void onPlayerQuit(PlayerQuitEvent event) {
         Player player = event.getPlayer();
@@ -63,9 +73,16 @@ public class PlayerListener implements Listener {
             plugin.getWagerManager().playerLeave(player);
         }
 
+        plugin.getMatchmaker().leave(player.getUniqueId());
+        plugin.getSpectatorManager().handleQuit(player);
+
         // Clean up pending GUI states
         GUIManager.removePendingAccept(player.getUniqueId());
+        GUIManager.removeShownListing(player.getUniqueId());
         GUIManager.removePendingCustomAmount(player.getUniqueId());
+        GUIManager.removeSelectedKit(player.getUniqueId());
+        GUIManager.removeShownBoard(player.getUniqueId());
+        plugin.getEconomyManager().invalidateCache(player);
     }
 
     @EventHandler(priority = EventPriority.LOWEST)
@@ -88,8 +105,8 @@ public class PlayerListener implements Listener {
                 double amount = FormatUtil.parseFormattedNumber(message);
                 GUIManager.removePendingCustomAmount(player.getUniqueId());
 
-                double min = plugin.getConfig().getDouble("min-wager", 100);
-                double max = plugin.getConfig().getDouble("max-wager", 1000000);
+                double min = plugin.getSettings().getMinWager();
+                double max = plugin.getSettings().getMaxWager();
 
                 if (amount < min) {
                     player.sendMessage(ChatColor.RED + "Minimum wager is " + FormatUtil.formatMoney(min));
@@ -103,7 +120,7 @@ public class PlayerListener implements Listener {
                 // Run on main thread
                 final double finalAmount = amount;
                 SchedulerUtil.runTask(plugin, () -> {
-                    plugin.getWagerManager().createWager(player, finalAmount);
+                    plugin.getWagerManager().createWager(player, finalAmount, GUIManager.getSelectedKit(player.getUniqueId()));
                 });
 
             } catch (NumberFormatException e) {
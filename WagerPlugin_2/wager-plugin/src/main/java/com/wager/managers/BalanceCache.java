@@ -0,0 +1,46 @@
+package com.wager.managers;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Last known balance per player. Entries are refreshed by the plugin's own transactions
+ * and expire after a short TTL so changes made outside the plugin still show up.
+ */
+public class BalanceCache {
+
+    private record Entry(double balance, long fetchedAt) {}
+
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+
+    public BalanceCache(long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Cached balance if it is still within the TTL, otherwise null
+     */
+    public Double getFresh(UUID playerId) {
+        Entry entry = entries.get(playerId);
+        if (entry == null || System.currentTimeMillis() - entry.fetchedAt() > ttlMillis) return null;
+        return entry.balance();
+    }
+
+    /**
+     * Cached balance regardless of age, or null if there is none
+     */
+    public Double getLastKnown(UUID playerId) {
+        Entry entry = entries.get(playerId);
+        return entry != null ? entry.balance() : null;
+    }
+
+    public void put(UUID playerId, double balance) {
+        entries.put(playerId, new Entry(balance, System.currentTimeMillis()));
+    }
+
+    public void invalidate(UUID playerId) {
+        entries.remove(playerId);
+    }
+}
@@ -1,26 +1,40 @@
 package com.wager.managers;
 
 import com.wager.WagerPlugin;
+import com.wager.storage.BalanceStore;
+import com.wager.storage.JournalBalanceStore;
+import com.wager.storage.MappedBalanceStore;
+import com.wager.storage.YamlBalanceStore;
+import com.wager.utils.OrderedExecutor;
+import com.wager.utils.SchedulerUtil;
 import net.milkbowl.vault.economy.Economy;
-import org.bukkit.configuration.file.FileConfiguration;
-import org.bukkit.configuration.file.YamlConfiguration;
+import net.milkbowl.vault.economy.EconomyResponse;
+import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.RegisteredServiceProvider;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
 
 public class EconomyManager {
 
     private final WagerPlugin plugin;
 
-    // Vault (used when available)
+    // Vault (used when available). Provider calls from the async API run on this executor,
+    // one player at a time in submission order, so a slow provider never blocks a tick.
     private Economy vaultEconomy;
     private boolean usingVault = false;
+    private OrderedExecutor vaultExecutor;
+    private BalanceCache balanceCache;
 
-    // Built-in file economy (fallback)
-    private File economyFile;
-    private FileConfiguration economyConfig;
+    // Built-in economy (fallback), flushed to disk in the background
+    private BalanceStore balanceStore;
+    private volatile boolean flushing = false;
 
     public EconomyManager(WagerPlugin plugin) {
         this.plugin = plugin;
@@ -34,6 +48,9 @@ public class EconomyManager {
             if (rsp != null && rsp.getProvider() != null) {
                 vaultEconomy = rsp.getProvider();
                 usingVault = true;
+                vaultExecutor = new OrderedExecutor("WagerPlugin-Economy",
+                        plugin.getConfig().getInt("economy-threads", 2));
+                balanceCache = new BalanceCache(plugin.getConfig().getLong("balance-cache-ttl", 5) * 1000L);
                 plugin.getLogger().info("Successfully hooked into Vault economy: " + vaultEconomy.getName());
 
                 if (vaultEconomy.getName().equalsIgnoreCase("PrismEconomy")) {
@@ -49,82 +66,219 @@ public class EconomyManager {
         }
 
         // Built-in economy fallback
-        setupBuiltInEconomy();
-        plugin.getLogger().info("Built-in economy enabled. Players start with $"
-                + plugin.getConfig().getDouble("starting-balance", 10000.0));
+        if (!setupBuiltInEconomy()) {
+            return false;
+        }
+        plugin.getLogger().info("Built-in economy enabled. Players start with $" + getStartingBalance());
         return true;
     }
 
-    private void setupBuiltInEconomy() {
-        economyFile = new File(plugin.getDataFolder(), "economy.yml");
-        if (!economyFile.exists()) {
-            try {
-                economyFile.createNewFile();
-            } catch (IOException e) {
-                e.printStackTrace();
+    /**
+     * Open the configured balance store; returns false if it can't be loaded
+     */
+    private boolean setupBuiltInEconomy() {
+        String storage = plugin.getConfig().getString("economy-storage", "journal").toLowerCase();
+        long interval;
+        if (storage.equals("yaml")) {
+            balanceStore = new YamlBalanceStore(new File(plugin.getDataFolder(), "economy.yml"), plugin.getLogger());
+            interval = Math.max(1, plugin.getConfig().getLong("economy-flush-interval", 5)) * 20L;
+        } else if (storage.equals("mmap")) {
+            balanceStore = new MappedBalanceStore(plugin.getDataFolder(), plugin.getLogger());
+            interval = Math.max(1, plugin.getConfig().getLong("economy-flush-interval", 5)) * 20L;
+        } else {
+            if (!storage.equals("journal")) {
+                plugin.getLogger().warning("Unknown economy-storage '" + storage + "', using journal");
             }
+            balanceStore = new JournalBalanceStore(plugin.getDataFolder(), plugin.getLogger(),
+                    plugin.getConfig().getInt("economy-journal-compact-after", 50000));
+            interval = Math.max(1, plugin.getConfig().getLong("economy-journal-sync-ticks", 20));
         }
-        economyConfig = YamlConfiguration.loadConfiguration(economyFile);
-    }
 
-    private void saveEconomy() {
-        if (economyConfig != null && economyFile != null) {
-            try {
-                economyConfig.save(economyFile);
-            } catch (IOException e) {
-                e.printStackTrace();
+        try {
+            balanceStore.load();
+        } catch (IOException e) {
+            // Never run on a half-loaded store, and never let close() write it back over the files
+            plugin.getLogger().log(Level.SEVERE, "Failed to load built-in economy", e);
+            balanceStore = null;
+            return false;
+        }
+
+        // Coalesce balance changes into one write per interval
+        flushing = true;
+        SchedulerUtil.runTaskTimerAsync(plugin, cancel -> {
+            if (!flushing) {
+                cancel.run();
+                return;
             }
+            balanceStore.flush();
+        }, interval, interval);
+        return true;
+    }
+
+    /**
+     * Finish queued provider calls, stop the background flusher and write any pending balance changes
+     */
+    public void shutdown() {
+        if (vaultExecutor != null && !vaultExecutor.shutdown(10, TimeUnit.SECONDS)) {
+            plugin.getLogger().warning("Timed out waiting for pending economy transactions");
         }
+        flushing = false;
+        if (balanceStore != null) {
+            balanceStore.close();
+        }
+    }
+
+    private double getStartingBalance() {
+        return plugin.getSettings().getStartingBalance();
     }
 
     private double getBuiltInBalance(Player player) {
-        String key = player.getUniqueId().toString();
-        if (!economyConfig.contains(key)) {
-            double start = plugin.getConfig().getDouble("starting-balance", 10000.0);
-            economyConfig.set(key, start);
-            saveEconomy();
-            return start;
+        return balanceStore.getBalance(player.getUniqueId(), getStartingBalance());
+    }
+
+    /**
+     * Balance for display (GUIs). With Vault this is served from the cache: a stale entry is
+     * returned as-is while a refresh runs in the background. Never calls the provider on the
+     * calling thread; returns null if nothing is cached yet, in which case the caller shows a
+     * placeholder and fills it in from {@link #getBalanceAsync}.
+     */
+    public Double getCachedBalance(Player player) {
+        if (!usingVault) {
+            return getBuiltInBalance(player);
         }
-        return economyConfig.getDouble(key);
+        Double fresh = balanceCache.getFresh(player.getUniqueId());
+        if (fresh != null) return fresh;
+
+        Double lastKnown = balanceCache.getLastKnown(player.getUniqueId());
+        if (lastKnown != null) {
+            // Re-stamp the old value so repeated opens don't queue more refreshes
+            balanceCache.put(player.getUniqueId(), lastKnown);
+            getBalanceAsync(player);
+            return lastKnown;
+        }
+        return null;
     }
 
-    public double getBalance(Player player) {
+    /**
+     * Load a player's balance into the cache ahead of their first GUI open
+     */
+    public void warmCache(Player player) {
         if (usingVault) {
-            return vaultEconomy.getBalance(player);
+            getBalanceAsync(player);
         }
-        return getBuiltInBalance(player);
     }
 
-    public boolean hasEnough(Player player, double amount) {
+    public void invalidateCache(Player player) {
         if (usingVault) {
-            return vaultEconomy.has(player, amount);
+            balanceCache.invalidate(player.getUniqueId());
         }
-        return getBuiltInBalance(player) >= amount;
     }
 
-    public void withdraw(Player player, double amount) {
-        if (usingVault) {
-            vaultEconomy.withdrawPlayer(player, amount);
-            return;
+    // --- Async API ---
+
+    /**
+     * Outcome of an async transaction; balance is the player's balance afterwards
+     */
+    public record Result(boolean success, double balance) {}
+
+    public CompletableFuture<Double> getBalanceAsync(Player player) {
+        if (!usingVault) {
+            try {
+                return CompletableFuture.completedFuture(getBuiltInBalance(player));
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
         }
-        double balance = getBuiltInBalance(player) - amount;
-        economyConfig.set(player.getUniqueId().toString(), balance);
-        saveEconomy();
+        return vaultExecutor.submit(player.getUniqueId(), () -> {
+            double balance = vaultEconomy.getBalance(player);
+            balanceCache.put(player.getUniqueId(), balance);
+            return balance;
+        });
     }
 
-    public void deposit(Player player, double amount) {
-        if (usingVault) {
-            vaultEconomy.depositPlayer(player, amount);
-            return;
+    /**
+     * Withdraw only if the player can afford it, in a single provider call. Providers that
+     * let the balance go negative are reversed, so a failed result never leaves a charge.
+     */
+    public CompletableFuture<Result> withdrawAsync(Player player, double amount, UUID wagerId) {
+        if (!usingVault) {
+            // Callers only handle failures through the future, e.g. a full balance table
+            try {
+                double balance = getBuiltInBalance(player);
+                if (balance < amount) {
+                    return CompletableFuture.completedFuture(new Result(false, balance));
+                }
+                balance = balanceStore.adjust(player.getUniqueId(), -amount, wagerId, getStartingBalance());
+                return CompletableFuture.completedFuture(new Result(true, balance));
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        return vaultExecutor.submit(player.getUniqueId(), () -> {
+            EconomyResponse response = vaultEconomy.withdrawPlayer(player, amount);
+            if (!response.transactionSuccess()) {
+                balanceCache.invalidate(player.getUniqueId());
+                return new Result(false, response.balance);
+            }
+            if (response.balance < 0) {
+                EconomyResponse reversal = vaultEconomy.depositPlayer(player, amount);
+                balanceCache.put(player.getUniqueId(), reversal.balance);
+                return new Result(false, reversal.balance);
+            }
+            balanceCache.put(player.getUniqueId(), response.balance);
+            return new Result(true, response.balance);
+        });
+    }
+
+    /**
+     * Pay a settlement to a player who may be offline. On the built-in economy the settlement
+     * id is stored with the deposit, so paying a settlement the balances already hold (after a
+     * crash lost the record that it was paid) changes nothing and still succeeds.
+     */
+    public CompletableFuture<Result> depositAsync(OfflinePlayer player, double amount, UUID wagerId, UUID settlementId) {
+        if (!usingVault) {
+            try {
+                UUID account = player.getUniqueId();
+                if (!balanceStore.deposit(account, amount, settlementId, getStartingBalance())) {
+                    plugin.getLogger().info("Settlement " + settlementId + " was already paid to " + account);
+                }
+                return CompletableFuture.completedFuture(new Result(true, balanceStore.getBalance(account, getStartingBalance())));
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        return vaultExecutor.submit(player.getUniqueId(), () -> {
+            EconomyResponse response = vaultEconomy.depositPlayer(player, amount);
+            if (response.transactionSuccess()) {
+                balanceCache.put(player.getUniqueId(), response.balance);
+            } else {
+                balanceCache.invalidate(player.getUniqueId());
+                plugin.getLogger().warning("Failed to deposit " + amount + " to " + player.getUniqueId() + ": " + response.errorMessage);
+            }
+            return new Result(response.transactionSuccess(), response.balance);
+        });
+    }
+
+    /**
+     * Write pending built-in balance changes now. Returns true once every deposit made so far is
+     * on disk; with Vault the provider keeps its own balances, so that is always the case.
+     */
+    public boolean syncBalances() {
+        return usingVault || (balanceStore != null && balanceStore.flush());
+    }
+
+    /**
+     * Let the built-in store forget paid settlements other than these, once none of the others
+     * can be paid again
+     */
+    public void retainSettlements(Collection<UUID> settlementIds) {
+        if (!usingVault && balanceStore != null) {
+            balanceStore.retainSettlements(settlementIds);
         }
-        double balance = getBuiltInBalance(player) + amount;
-        economyConfig.set(player.getUniqueId().toString(), balance);
-        saveEconomy();
     }
 
     public double calculateTax(double amount) {
-        double taxPercent = plugin.getConfig().getDouble("tax-percent", 3.0);
-        return amount * (taxPercent / 100.0);
+        return amount * plugin.getSettings().getTaxRate();
     }
 
     public double calculateWinnings(double wagerAmount) {
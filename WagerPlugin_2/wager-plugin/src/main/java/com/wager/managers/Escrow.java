@@ -0,0 +1,64 @@
+package com.wager.managers;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Plugin-side escrow account for one wager. Holds every stake that has been withdrawn
+ * for the wager until it is either settled to the winner or refunded, exactly once.
+ */
+public class Escrow {
+
+    public enum State {
+        OPEN,      // Collecting stakes
+        SETTLED,   // Pot paid out to the winner
+        REFUNDED   // Stakes returned to their owners
+    }
+
+    private final UUID wagerId;
+    private final Map<UUID, Double> holds = new LinkedHashMap<>();
+    private State state = State.OPEN;
+
+    public Escrow(UUID wagerId) {
+        this.wagerId = wagerId;
+    }
+
+    public UUID getWagerId() { return wagerId; }
+
+    public synchronized State getState() { return state; }
+
+    public synchronized double getTotal() {
+        double total = 0;
+        for (double amount : holds.values()) total += amount;
+        return total;
+    }
+
+    /**
+     * Record a withdrawn stake. Returns false if the escrow already closed, in which
+     * case the caller still owns the money and must return it.
+     */
+    synchronized boolean addHold(UUID playerId, double amount) {
+        if (state != State.OPEN) return false;
+        holds.merge(playerId, amount, Double::sum);
+        return true;
+    }
+
+    /**
+     * Take a single stake back out of an open escrow
+     */
+    synchronized double removeHold(UUID playerId) {
+        if (state != State.OPEN) return 0;
+        Double amount = holds.remove(playerId);
+        return amount != null ? amount : 0;
+    }
+
+    /**
+     * Close the escrow and hand back its holds, or null if it was already closed
+     */
+    synchronized Map<UUID, Double> close(State closedState) {
+        if (state != State.OPEN) return null;
+        state = closedState;
+        return new LinkedHashMap<>(holds);
+    }
+}
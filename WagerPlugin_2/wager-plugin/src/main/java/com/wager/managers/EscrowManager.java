@@ -0,0 +1,191 @@
+package com.wager.managers;
+
+import com.wager.WagerPlugin;
+import com.wager.storage.WagerJournal;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * Moves stakes into per-wager escrow accounts and pays them out.
+ *
+ * Each stake is taken with a single provider call when it is held, and a finished wager
+ * is paid out in one commit: the winner gets the pot minus tax (tax stays with the
+ * plugin), or every holder gets their stake back. An escrow can only close once, so a
+ * wager can never be paid twice. Payouts and refunds go through the
+ * {@link SettlementQueue}, so they survive crashes and offline players, and every hold
+ * is recorded in the {@link WagerJournal} so stakes left in escrow by a crash are refunded.
+ */
+public class EscrowManager {
+
+    /**
+     * Outcome of settling a wager
+     */
+    public record Settlement(UUID winner, double pot, double tax, double payout) {}
+
+    /**
+     * A stake withdrawal that hasn't reached escrow yet
+     */
+    public record PendingHold(UUID wagerId, UUID playerId, double amount) {}
+
+    private final WagerPlugin plugin;
+    private final Map<UUID, Escrow> escrows = new ConcurrentHashMap<>(); // wagerId -> Escrow
+    private final Map<CompletableFuture<EconomyManager.Result>, PendingHold> pendingHolds = new ConcurrentHashMap<>();
+    private final DoubleAdder collectedTax = new DoubleAdder();
+
+    public EscrowManager(WagerPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    public Escrow getEscrow(UUID wagerId) {
+        return escrows.computeIfAbsent(wagerId, Escrow::new);
+    }
+
+    /**
+     * Withdraw the player's stake into the wager's escrow
+     */
+    public CompletableFuture<EconomyManager.Result> hold(Wager wager, Player player) {
+        Escrow escrow = getEscrow(wager.getId());
+        CompletableFuture<EconomyManager.Result> hold = plugin.getEconomyManager().withdrawAsync(player, wager.getAmount(), wager.getId()).thenApply(result -> {
+            if (!result.success()) return result;
+            if (!escrow.addHold(player.getUniqueId(), wager.getAmount())) {
+                // Wager closed while the withdrawal was in flight
+                plugin.getSettlementQueue().enqueue(player.getUniqueId(), wager.getAmount(), wager.getId());
+                return new EconomyManager.Result(false, result.balance() + wager.getAmount());
+            }
+            plugin.getWagerJournal().recordHold(wager.getId(), player.getUniqueId(), wager.getAmount());
+            return result;
+        });
+        pendingHolds.put(hold, new PendingHold(wager.getId(), player.getUniqueId(), wager.getAmount()));
+        hold.whenComplete((result, error) -> pendingHolds.remove(hold));
+        return hold;
+    }
+
+    /**
+     * Block until every stake withdrawal in flight has landed in escrow (or failed), or the
+     * deadline passes. Returns the holds that still haven't finished.
+     */
+    public List<PendingHold> awaitHolds(long deadlineNanos) {
+        CompletableFuture<?>[] inFlight = pendingHolds.keySet().toArray(new CompletableFuture[0]);
+        try {
+            CompletableFuture.allOf(inFlight).get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // Failed withdrawals took nothing; unfinished ones are reported below
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<PendingHold> unfinished = new ArrayList<>();
+        for (Map.Entry<CompletableFuture<EconomyManager.Result>, PendingHold> entry : pendingHolds.entrySet()) {
+            if (!entry.getKey().isDone()) unfinished.add(entry.getValue());
+        }
+        return unfinished;
+    }
+
+    /**
+     * Return a single player's stake, leaving the escrow open for the others
+     */
+    public void release(Wager wager, UUID playerId) {
+        Escrow escrow = escrows.get(wager.getId());
+        if (escrow == null) return;
+        double amount = escrow.removeHold(playerId);
+        if (amount > 0) {
+            plugin.getSettlementQueue().enqueue(playerId, amount, wager.getId());
+            plugin.getWagerJournal().recordRelease(wager.getId(), playerId);
+        }
+    }
+
+    /**
+     * Pay the pot minus tax to the winner. Returns null if the escrow was already closed.
+     */
+    public Settlement settle(Wager wager, UUID winnerId) {
+        Escrow escrow = escrows.remove(wager.getId());
+        Map<UUID, Double> holds = escrow != null ? escrow.close(Escrow.State.SETTLED) : null;
+        if (holds == null) return null;
+
+        double pot = 0;
+        for (double amount : holds.values()) pot += amount;
+        double tax = plugin.getEconomyManager().calculateTax(pot);
+        double payout = pot - tax;
+
+        collectedTax.add(tax);
+        plugin.getSettlementQueue().enqueue(winnerId, payout, wager.getId(), true);
+        plugin.getWagerJournal().recordClose(wager.getId());
+        return new Settlement(winnerId, pot, tax, payout);
+    }
+
+    /**
+     * Return every held stake. Returns the refunds made, or null if the escrow was already closed.
+     */
+    public Map<UUID, Double> refund(Wager wager) {
+        return refund(wager.getId());
+    }
+
+    /**
+     * Refund every escrow still open, including those of wagers that never went live
+     * because the creator's stake was still in flight. Returns the number of stakes refunded.
+     */
+    public int refundAll() {
+        int refunded = 0;
+        for (UUID wagerId : new ArrayList<>(escrows.keySet())) {
+            Map<UUID, Double> holds = refund(wagerId);
+            if (holds != null) refunded += holds.size();
+        }
+        return refunded;
+    }
+
+    private Map<UUID, Double> refund(UUID wagerId) {
+        Escrow escrow = escrows.remove(wagerId);
+        Map<UUID, Double> holds = escrow != null ? escrow.close(Escrow.State.REFUNDED) : null;
+        if (holds == null) return null;
+
+        for (Map.Entry<UUID, Double> hold : holds.entrySet()) {
+            plugin.getSettlementQueue().enqueue(hold.getKey(), hold.getValue(), wagerId, true);
+        }
+        plugin.getWagerJournal().recordClose(wagerId);
+        return holds;
+    }
+
+    /**
+     * Refund stakes that were still in escrow when the server went down. Returns the number
+     * of stakes refunded.
+     */
+    public int recover(List<WagerJournal.Interrupted> interrupted) {
+        int refunded = 0;
+        for (WagerJournal.Interrupted wager : interrupted) {
+            // Settled or refunded just before the crash, with only the journal's close lost:
+            // the settlements already decided where every stake goes
+            if (plugin.getSettlementQueue().hasClosingOutstanding(wager.wagerId())) {
+                plugin.getWagerJournal().recordClose(wager.wagerId());
+                continue;
+            }
+            for (Map.Entry<UUID, Double> hold : wager.holds().entrySet()) {
+                // Already owed back by a single release that reached disk just before the crash
+                if (plugin.getSettlementQueue().hasOutstanding(wager.wagerId(), hold.getKey())) continue;
+                plugin.getSettlementQueue().enqueue(hold.getKey(), hold.getValue(), wager.wagerId());
+                refunded++;
+            }
+            plugin.getWagerJournal().recordClose(wager.wagerId());
+        }
+        return refunded;
+    }
+
+    public double getTotalHeld() {
+        double total = 0;
+        for (Escrow escrow : escrows.values()) total += escrow.getTotal();
+        return total;
+    }
+
+    public double getCollectedTax() {
+        return collectedTax.sum();
+    }
+}
@@ -0,0 +1,116 @@
+package com.wager.managers;
+
+import com.wager.utils.FormatUtil;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Top players by net winnings, wins and rating.
+ *
+ * Each board is a {@link RankedBoard} updated in place when a player's stats change, once
+ * per finished match. Pages are sliced out on demand and kept until their board changes,
+ * so opening the same page repeatedly does no work.
+ */
+public class Leaderboards {
+
+    public static final int PAGE_SIZE = 28;
+
+    public enum Category {
+        PROFIT("Net Winnings", PlayerStats::profit),
+        WINS("Wins", PlayerStats::wins),
+        RATING("Rating", PlayerStats::rating);
+
+        private final String displayName;
+        private final ToDoubleFunction<PlayerStats> score;
+
+        Category(String displayName, ToDoubleFunction<PlayerStats> score) {
+            this.displayName = displayName;
+            this.score = score;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        /**
+         * A score on this board as players should see it
+         */
+        public String format(double score) {
+            return switch (this) {
+                case PROFIT -> (score < 0 ? "-" : "+") + FormatUtil.formatMoney(Math.abs(score));
+                case WINS -> String.valueOf((long) score);
+                case RATING -> String.valueOf(Math.round(score));
+            };
+        }
+
+        /**
+         * Match a category by name, or null if there is none
+         */
+        public static Category match(String name) {
+            for (Category category : values()) {
+                if (category.name().equalsIgnoreCase(name)) return category;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * A page of one board, as it was at {@code version}
+     *
+     * @param page 0-based page number
+     */
+    public record Page(Category category, int page, int totalPages, long version, List<RankedBoard.Entry> entries) {}
+
+    private final Map<Category, RankedBoard> boards = new EnumMap<>(Category.class);
+    private final Map<Category, Map<Integer, Page>> pages = new EnumMap<>(Category.class);
+
+    public Leaderboards() {
+        for (Category category : Category.values()) {
+            boards.put(category, new RankedBoard());
+            pages.put(category, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Put the player's current stats on every board
+     */
+    public void update(PlayerStats stats) {
+        if (stats.matches() == 0) return;
+        for (Category category : Category.values()) {
+            boards.get(category).update(stats.playerId(), category.score.applyAsDouble(stats));
+        }
+    }
+
+    /**
+     * 1-based rank of the player on this board, or -1 if they haven't played
+     */
+    public int rank(Category category, UUID playerId) {
+        return boards.get(category).rank(playerId);
+    }
+
+    /**
+     * A page of the board, reused until the board changes. Out of range page numbers are
+     * clamped to the first or last page.
+     */
+    public Page getPage(Category category, int page) {
+        RankedBoard board = boards.get(category);
+        long version = board.getVersion();
+        int totalPages = Math.max(1, (board.size() + PAGE_SIZE - 1) / PAGE_SIZE);
+        page = Math.max(0, Math.min(page, totalPages - 1));
+
+        Map<Integer, Page> cached = pages.get(category);
+        Page hit = cached.get(page);
+        if (hit != null && hit.version() == version) return hit;
+
+        // The board changed since these pages were cut; none of them are any use now
+        cached.values().removeIf(stale -> stale.version() != version);
+        Page fresh = new Page(category, page, totalPages, version, board.range(page * PAGE_SIZE, PAGE_SIZE));
+        cached.put(page, fresh);
+        return fresh;
+    }
+}
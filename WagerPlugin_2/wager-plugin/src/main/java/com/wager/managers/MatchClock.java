@@ -0,0 +1,86 @@
+package com.wager.managers;
+
+import com.wager.WagerPlugin;
+import com.wager.utils.SchedulerUtil;
+import com.wager.utils.TimingWheel;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * One shared ticker for every match timer (countdowns and the like).
+ *
+ * Instead of a scheduler task per match, timers live in a {@link TimingWheel} advanced by a
+ * single global-region task, so each tick only touches the timers that are due. Timers can
+ * be started from any thread; they are handed to the ticker through a queue and always
+ * run on the global region thread.
+ */
+public class MatchClock {
+
+    private final class Timer implements Runnable {
+        private final Consumer<Runnable> task;
+        private final long period;
+        private volatile boolean cancelled;
+
+        Timer(Consumer<Runnable> task, long period) {
+            this.task = task;
+            this.period = period;
+        }
+
+        @Override
+        public void run() {
+            if (cancelled) return;
+            try {
+                task.accept(() -> cancelled = true);
+            } catch (Throwable t) {
+                cancelled = true;
+                plugin.getLogger().log(java.util.logging.Level.SEVERE, "Match timer failed", t);
+            }
+            if (!cancelled && period > 0) {
+                wheel.schedule(period, this);
+            }
+        }
+    }
+
+    private record Pending(long delay, Timer timer) {}
+
+    private final WagerPlugin plugin;
+    private final TimingWheel<Timer> wheel = new TimingWheel<>(64);
+    private final Queue<Pending> incoming = new ConcurrentLinkedQueue<>();
+
+    public MatchClock(WagerPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    public void start() {
+        SchedulerUtil.runTaskTimer(plugin, cancel -> tick(), 1L, 1L);
+    }
+
+    /**
+     * Run {@code task} after {@code initialDelay} ticks and then every {@code period} ticks.
+     * Like {@link SchedulerUtil#runTaskTimer}, the task receives a {@link Runnable} that cancels it.
+     */
+    public void runTimer(Consumer<Runnable> task, long initialDelay, long period) {
+        incoming.add(new Pending(initialDelay, new Timer(task, period)));
+    }
+
+    /**
+     * Run {@code task} once after {@code delay} ticks
+     */
+    public void runLater(Runnable task, long delay) {
+        incoming.add(new Pending(delay, new Timer(cancel -> task.run(), 0)));
+    }
+
+    public int getScheduledCount() {
+        return wheel.size() + incoming.size();
+    }
+
+    private void tick() {
+        Pending pending;
+        while ((pending = incoming.poll()) != null) {
+            wheel.schedule(pending.delay(), pending.timer());
+        }
+        wheel.advance(Timer::run);
+    }
+}
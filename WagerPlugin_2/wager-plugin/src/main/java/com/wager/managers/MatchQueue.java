@@ -0,0 +1,136 @@
+package com.wager.managers;
+
+import com.wager.config.WagerSettings;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * The {@link Matchmaker}'s queue of tickets, ordered by stake, and the rules for pairing them.
+ *
+ * A new ticket is compared with only the nearest stake on each side (O(log n)). Two tickets
+ * match when their stakes differ by no more than either player's tolerance, which widens
+ * the longer they wait; {@link #sweep} pairs neighbours whose tolerances have grown to overlap.
+ * Not thread-safe; the matchmaker guards it with its own lock.
+ */
+class MatchQueue {
+
+    record Ticket(UUID playerId, double amount, long queuedAt, long seq) {}
+
+    record Pair(Ticket first, Ticket second) {}
+
+    private static final Comparator<Ticket> BY_AMOUNT = Comparator
+            .comparingDouble(Ticket::amount)
+            .thenComparingLong(Ticket::seq);
+
+    private final TreeMap<Ticket, Ticket> queue = new TreeMap<>(BY_AMOUNT);
+    private final Map<UUID, Ticket> tickets = new HashMap<>(); // playerId -> Ticket
+    private long nextSeq = 0;
+
+    boolean contains(UUID playerId) {
+        return tickets.containsKey(playerId);
+    }
+
+    int size() {
+        return queue.size();
+    }
+
+    /**
+     * Pair the player with the nearest compatible ticket, removing it from the queue, or
+     * queue them if there is none (returns null)
+     */
+    Pair add(UUID playerId, double amount, long now, WagerSettings settings) {
+        Ticket ticket = new Ticket(playerId, amount, now, nextSeq++);
+        Pair pair = findPartner(ticket, settings, now);
+        if (pair == null) {
+            queue.put(ticket, ticket);
+            tickets.put(playerId, ticket);
+        }
+        return pair;
+    }
+
+    /**
+     * Take a player out of the queue. Returns false if they weren't queued.
+     */
+    boolean remove(UUID playerId) {
+        Ticket ticket = tickets.remove(playerId);
+        if (ticket == null) return false;
+        queue.remove(ticket);
+        return true;
+    }
+
+    /**
+     * Put a ticket back with its original place in line, unless the player queued again meanwhile
+     */
+    void requeue(Ticket ticket) {
+        if (tickets.containsKey(ticket.playerId())) return;
+        queue.put(ticket, ticket);
+        tickets.put(ticket.playerId(), ticket);
+    }
+
+    /**
+     * Pair and remove neighbours whose tolerances have widened enough to overlap
+     */
+    List<Pair> sweep(long now, WagerSettings settings) {
+        List<Pair> pairs = new ArrayList<>();
+        if (settings.getMatchWidenPercentPerSecond() <= 0 || queue.size() < 2) return pairs;
+
+        Iterator<Ticket> it = queue.keySet().iterator();
+        Ticket previous = it.next();
+        while (it.hasNext()) {
+            Ticket current = it.next();
+            if (previous != null && compatible(previous, current, settings, now)) {
+                pairs.add(new Pair(previous, current));
+                previous = null;
+            } else {
+                previous = current;
+            }
+        }
+        for (Pair pair : pairs) {
+            queue.remove(pair.first());
+            queue.remove(pair.second());
+            tickets.remove(pair.first().playerId());
+            tickets.remove(pair.second().playerId());
+        }
+        return pairs;
+    }
+
+    /**
+     * Nearest compatible ticket on either side of the new one; removes it from the queue
+     */
+    private Pair findPartner(Ticket ticket, WagerSettings settings, long now) {
+        Ticket below = queue.lowerKey(ticket);
+        Ticket above = queue.higherKey(ticket);
+
+        Ticket best = null;
+        for (Ticket candidate : new Ticket[]{below, above}) {
+            if (candidate == null || !compatible(candidate, ticket, settings, now)) continue;
+            if (best == null || Math.abs(candidate.amount() - ticket.amount()) < Math.abs(best.amount() - ticket.amount())) {
+                best = candidate;
+            }
+        }
+        if (best == null) return null;
+
+        queue.remove(best);
+        tickets.remove(best.playerId());
+        return new Pair(best, ticket);
+    }
+
+    private static boolean compatible(Ticket a, Ticket b, WagerSettings settings, long now) {
+        double difference = Math.abs(a.amount() - b.amount());
+        return difference <= tolerance(a, settings, now) || difference <= tolerance(b, settings, now);
+    }
+
+    private static double tolerance(Ticket ticket, WagerSettings settings, long now) {
+        double waitedSeconds = (now - ticket.queuedAt()) / 1000.0;
+        double percent = Math.min(settings.getMatchMaxTolerancePercent(),
+                settings.getMatchTolerancePercent() + settings.getMatchWidenPercentPerSecond() * waitedSeconds);
+        return ticket.amount() * percent / 100.0;
+    }
+}
@@ -0,0 +1,9 @@
+package com.wager.managers;
+
+import java.util.UUID;
+
+/**
+ * One finished match, as written to the match history
+ */
+public record MatchRecord(long timestamp, UUID wagerId, UUID winner, UUID loser, double amount,
+                          double payout, double tax, String kitId, double ratingChange) {}
@@ -0,0 +1,137 @@
+package com.wager.managers;
+
+import com.wager.WagerPlugin;
+import com.wager.config.WagerSettings;
+import com.wager.utils.FormatUtil;
+import com.wager.utils.SchedulerUtil;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.entity.Player;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Automatic matchmaking for {@code /wager queue <amount>}.
+ *
+ * Queued players are kept in a tree ordered by stake, so a new player is compared with
+ * only the nearest stake on each side (O(log n)) instead of anyone browsing the menu.
+ * Two tickets match when their stakes differ by no more than either player's tolerance,
+ * which widens the longer they wait; a once-a-second sweep pairs neighbours whose
+ * tolerances have grown to overlap. Matches are played for the lower stake. The pairing
+ * rules live in {@link MatchQueue}.
+ */
+public class Matchmaker {
+
+    private final WagerPlugin plugin;
+
+    // Guards queue; every operation on it is O(log n) apart from the sweep
+    private final Object lock = new Object();
+    private final MatchQueue queue = new MatchQueue();
+
+    public Matchmaker(WagerPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Start the sweep that pairs players whose tolerances have widened
+     */
+    public void start() {
+        SchedulerUtil.runTaskTimer(plugin, cancel -> sweep(), 20L, 20L);
+    }
+
+    /**
+     * Queue a player for an opponent with a similar stake
+     */
+    public void join(Player player, double amount) {
+        UUID playerId = player.getUniqueId();
+        WagerSettings settings = plugin.getSettings();
+        if (amount < settings.getMinWager() || amount > settings.getMaxWager()) {
+            player.sendMessage(ChatColor.RED + "Wager amount must be between " + FormatUtil.formatMoney(settings.getMinWager())
+                    + " and " + FormatUtil.formatMoney(settings.getMaxWager()));
+            return;
+        }
+        if (plugin.getWagerManager().isBusy(playerId)) {
+            player.sendMessage(ChatColor.RED + "You are already in a wager!");
+            return;
+        }
+
+        MatchQueue.Pair pair;
+        synchronized (lock) {
+            if (queue.contains(playerId)) {
+                player.sendMessage(ChatColor.RED + "You're already in the matchmaking queue! Use /wager queue leave to leave it.");
+                return;
+            }
+            pair = queue.add(playerId, amount, System.currentTimeMillis(), settings);
+        }
+
+        if (pair == null) {
+            player.sendMessage(ChatColor.GREEN + "✔ Searching for an opponent around " + ChatColor.GOLD + FormatUtil.formatMoney(amount)
+                    + ChatColor.GREEN + "... " + ChatColor.GRAY + "(/wager queue leave to stop)");
+        } else {
+            launch(pair);
+        }
+    }
+
+    /**
+     * Take a player out of the queue. Returns false if they weren't queued.
+     */
+    public boolean leave(UUID playerId) {
+        synchronized (lock) {
+            return queue.remove(playerId);
+        }
+    }
+
+    public boolean isQueued(UUID playerId) {
+        synchronized (lock) {
+            return queue.contains(playerId);
+        }
+    }
+
+    public int getQueuedCount() {
+        synchronized (lock) {
+            return queue.size();
+        }
+    }
+
+    /**
+     * Pair neighbours whose tolerances have widened enough to overlap
+     */
+    private void sweep() {
+        List<MatchQueue.Pair> pairs;
+        synchronized (lock) {
+            pairs = queue.sweep(System.currentTimeMillis(), plugin.getSettings());
+        }
+
+        for (MatchQueue.Pair pair : pairs) {
+            launch(pair);
+        }
+    }
+
+    /**
+     * Hand a pair to the wager manager; if someone went offline or got busy in the
+     * meantime, drop their ticket and requeue the other one
+     */
+    private void launch(MatchQueue.Pair pair) {
+        SchedulerUtil.runTask(plugin, () -> {
+            WagerManager wagerManager = plugin.getWagerManager();
+            Player first = Bukkit.getPlayer(pair.first().playerId());
+            Player second = Bukkit.getPlayer(pair.second().playerId());
+            boolean firstReady = first != null && !wagerManager.isBusy(first.getUniqueId());
+            boolean secondReady = second != null && !wagerManager.isBusy(second.getUniqueId());
+
+            if (firstReady && secondReady) {
+                double amount = Math.min(pair.first().amount(), pair.second().amount());
+                if (wagerManager.createMatchedWager(first, second, amount)) return;
+            }
+            if (firstReady) requeue(pair.first());
+            if (secondReady) requeue(pair.second());
+        });
+    }
+
+    private void requeue(MatchQueue.Ticket ticket) {
+        synchronized (lock) {
+            queue.requeue(ticket);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.wager.managers;
+
+import com.wager.WagerPlugin;
+import com.wager.storage.PreferenceStore;
+import com.wager.utils.SchedulerUtil;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * On/off preferences per player, packed into one int of flags. Players who never changed
+ * anything have no entry. Loaded once on startup and saved in the background whenever a
+ * flag changes; a burst of changes is written once.
+ */
+public class PlayerPreferences {
+
+    public enum Preference {
+        HIDE_BROADCASTS; // Don't receive new-wager announcements
+
+        int bit() {
+            return 1 << ordinal();
+        }
+    }
+
+    // Delay before a failed write is tried again
+    private static final long RETRY_TICKS = 100L;
+
+    private final WagerPlugin plugin;
+    private final PreferenceStore store;
+    private final Map<UUID, Integer> flags = new ConcurrentHashMap<>();
+    private final AtomicBoolean saveQueued = new AtomicBoolean();
+
+    public PlayerPreferences(WagerPlugin plugin) {
+        this.plugin = plugin;
+        this.store = new PreferenceStore(plugin.getDataFolder(), plugin.getLogger());
+        flags.putAll(store.load());
+    }
+
+    public boolean isSet(UUID playerId, Preference preference) {
+        Integer bits = flags.get(playerId);
+        return bits != null && (bits & preference.bit()) != 0;
+    }
+
+    /**
+     * Flip a preference and return its new value
+     */
+    public boolean toggle(UUID playerId, Preference preference) {
+        int bits = flags.compute(playerId, (id, current) -> (current != null ? current : 0) ^ preference.bit());
+        if (bits == 0) flags.remove(playerId, 0);
+        queueSave();
+        return (bits & preference.bit()) != 0;
+    }
+
+    /**
+     * Write any change that hasn't been saved yet. Blocking; used on shutdown.
+     */
+    public void shutdown() {
+        save();
+    }
+
+    private void queueSave() {
+        if (saveQueued.compareAndSet(false, true)) {
+            SchedulerUtil.runTaskAsync(plugin, this::save);
+        }
+    }
+
+    private void save() {
+        boolean failed;
+        // One writer at a time, and each takes its copy inside the lock, so the newest flags land last
+        synchronized (store) {
+            // Cleared before copying so a change made while writing queues another save
+            if (!saveQueued.getAndSet(false)) return;
+            failed = !store.save(new HashMap<>(flags));
+            // Still unsaved, so the retry below and shutdown() write it again
+            if (failed) saveQueued.set(true);
+        }
+        if (failed && plugin.isEnabled()) {
+            SchedulerUtil.runTaskLater(plugin, () -> SchedulerUtil.runTaskAsync(plugin, this::save), RETRY_TICKS);
+        }
+    }
+}
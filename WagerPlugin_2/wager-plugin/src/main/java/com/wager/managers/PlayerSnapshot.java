@@ -0,0 +1,145 @@
+package com.wager.managers;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.UUID;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A fighter's inventory and location from before the match, kept as compact bytes.
+ *
+ * The whole inventory (storage, armor and off-hand) is serialized with Paper's item
+ * format and optionally deflated, so a saved player costs a few hundred bytes instead of
+ * a live ItemStack graph. Items are only rebuilt when the snapshot is restored.
+ */
+public record PlayerSnapshot(UUID playerId, UUID worldId, double x, double y, double z,
+                             float yaw, float pitch, boolean compressed, int rawLength, byte[] items) {
+
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * Capture the player's inventory and location
+     */
+    public static PlayerSnapshot capture(Player player, boolean compress) {
+        byte[] raw = ItemStack.serializeItemsAsBytes(player.getInventory().getContents());
+        Location location = player.getLocation();
+        byte[] items = compress ? deflate(raw) : raw;
+        boolean compressed = compress && items.length < raw.length;
+        return new PlayerSnapshot(player.getUniqueId(), location.getWorld().getUID(),
+                location.getX(), location.getY(), location.getZ(), location.getYaw(), location.getPitch(),
+                compressed, raw.length, compressed ? items : raw);
+    }
+
+    /**
+     * Put the saved inventory back, replacing whatever the player has now
+     */
+    public void restoreInventory(Player player) {
+        byte[] raw = compressed ? inflate(items, rawLength) : items;
+        player.getInventory().setContents(ItemStack.deserializeItemsFromBytes(raw));
+    }
+
+    /**
+     * Where the player stood when the snapshot was taken, or null if the world is gone
+     */
+    public Location getLocation() {
+        World world = Bukkit.getWorld(worldId);
+        return world != null ? new Location(world, x, y, z, yaw, pitch) : null;
+    }
+
+    /**
+     * Encode for storage outside the heap (e.g. the recovery journal)
+     */
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(items.length + 80);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeLong(playerId.getMostSignificantBits());
+            out.writeLong(playerId.getLeastSignificantBits());
+            out.writeLong(worldId.getMostSignificantBits());
+            out.writeLong(worldId.getLeastSignificantBits());
+            out.writeDouble(x);
+            out.writeDouble(y);
+            out.writeDouble(z);
+            out.writeFloat(yaw);
+            out.writeFloat(pitch);
+            out.writeBoolean(compressed);
+            out.writeInt(rawLength);
+            out.writeInt(items.length);
+            out.write(items);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static PlayerSnapshot fromBytes(byte[] data) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            int version = in.readUnsignedByte();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unknown player snapshot version " + version);
+            }
+            UUID playerId = new UUID(in.readLong(), in.readLong());
+            UUID worldId = new UUID(in.readLong(), in.readLong());
+            double x = in.readDouble();
+            double y = in.readDouble();
+            double z = in.readDouble();
+            float yaw = in.readFloat();
+            float pitch = in.readFloat();
+            boolean compressed = in.readBoolean();
+            int rawLength = in.readInt();
+            byte[] items = new byte[in.readInt()];
+            in.readFully(items);
+            return new PlayerSnapshot(playerId, worldId, x, y, z, yaw, pitch, compressed, rawLength, items);
+        }
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 2));
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] compressed, int rawLength) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] raw = new byte[rawLength];
+            int read = 0;
+            while (read < rawLength && !inflater.finished()) {
+                int n = inflater.inflate(raw, read, rawLength - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                read += n;
+            }
+            if (read != rawLength) {
+                throw new IllegalStateException("Player snapshot is truncated");
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Player snapshot is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.wager.managers;
+
+import java.util.UUID;
+
+/**
+ * A player's wager record. Immutable: every finished match replaces the whole record,
+ * so it can be read from any thread without locking.
+ *
+ * @param profit net money won or lost across all matches, after tax
+ * @param taxPaid tax taken from this player's winnings
+ */
+public record PlayerStats(UUID playerId, int wins, int losses, double profit, double taxPaid,
+                          double rating, long lastMatch) {
+
+    public static final double STARTING_RATING = 1000.0;
+
+    public static PlayerStats empty(UUID playerId) {
+        return new PlayerStats(playerId, 0, 0, 0, 0, STARTING_RATING, 0);
+    }
+
+    public int matches() {
+        return wins + losses;
+    }
+
+    /**
+     * Wins as a percentage of matches played (0 if none)
+     */
+    public double winRate() {
+        int matches = matches();
+        return matches == 0 ? 0 : wins * 100.0 / matches;
+    }
+
+    PlayerStats withWin(double winnings, double tax, double newRating, long when) {
+        return new PlayerStats(playerId, wins + 1, losses, profit + winnings, taxPaid + tax, newRating, when);
+    }
+
+    PlayerStats withLoss(double stake, double newRating, long when) {
+        return new PlayerStats(playerId, wins, losses + 1, profit - stake, taxPaid, newRating, when);
+    }
+}
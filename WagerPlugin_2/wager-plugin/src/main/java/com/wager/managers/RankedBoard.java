@@ -0,0 +1,187 @@
+package com.wager.managers;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One leaderboard: players ordered by score, highest first, ties broken by UUID.
+ *
+ * Backed by a treap where every node knows its subtree size, so changing a score, finding
+ * a player's rank and jumping to the k-th entry are all O(log n) and a page of m entries
+ * costs O(log n + m). Nothing is ever re-sorted. Thread safe.
+ */
+public class RankedBoard {
+
+    public record Entry(int rank, UUID playerId, double score) {}
+
+    private static final class Node {
+        final UUID playerId;
+        final double score;
+        final int priority = ThreadLocalRandom.current().nextInt();
+        Node left, right;
+        int size = 1;
+
+        Node(UUID playerId, double score) {
+            this.playerId = playerId;
+            this.score = score;
+        }
+    }
+
+    private final Map<UUID, Double> scores = new HashMap<>();
+    private Node root;
+    private long version;
+
+    /**
+     * Set a player's score, adding them if they aren't on the board
+     */
+    public synchronized void update(UUID playerId, double score) {
+        Double previous = scores.put(playerId, score);
+        if (previous != null) {
+            if (previous == score) return;
+            root = remove(root, playerId, previous);
+        }
+        root = insert(root, new Node(playerId, score));
+        version++;
+    }
+
+    public synchronized void remove(UUID playerId) {
+        Double previous = scores.remove(playerId);
+        if (previous == null) return;
+        root = remove(root, playerId, previous);
+        version++;
+    }
+
+    /**
+     * 1-based rank of the player, or -1 if they aren't on the board
+     */
+    public synchronized int rank(UUID playerId) {
+        Double score = scores.get(playerId);
+        if (score == null) return -1;
+
+        int before = 0;
+        Node node = root;
+        while (node != null) {
+            int cmp = compare(playerId, score, node);
+            if (cmp == 0) return before + size(node.left) + 1;
+            if (cmp < 0) {
+                node = node.left;
+            } else {
+                before += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Up to {@code limit} entries starting at 0-based position {@code offset}
+     */
+    public synchronized List<Entry> range(int offset, int limit) {
+        List<Entry> entries = new ArrayList<>(Math.max(0, Math.min(limit, size(root) - offset)));
+        collect(root, offset, limit, 0, entries);
+        return entries;
+    }
+
+    public synchronized int size() {
+        return size(root);
+    }
+
+    /**
+     * Bumped on every change, so rendered pages can tell when they are stale
+     */
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    // In-order walk that skips whole subtrees lying before the offset
+    private static void collect(Node node, int offset, int limit, int before, List<Entry> out) {
+        if (node == null || out.size() >= limit) return;
+        int leftSize = size(node.left);
+        int position = before + leftSize;
+        if (offset < position) {
+            collect(node.left, offset, limit, before, out);
+        }
+        if (out.size() < limit && position >= offset) {
+            out.add(new Entry(position + 1, node.playerId, node.score));
+        }
+        if (out.size() < limit) {
+            collect(node.right, offset, limit, position + 1, out);
+        }
+    }
+
+    private static int compare(UUID playerId, double score, Node node) {
+        int cmp = Double.compare(node.score, score); // higher scores first
+        return cmp != 0 ? cmp : playerId.compareTo(node.playerId);
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) return added;
+        if (compare(added.playerId, added.score, node) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) node = rotateRight(node);
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) node = rotateLeft(node);
+        }
+        resize(node);
+        return node;
+    }
+
+    private static Node remove(Node node, UUID playerId, double score) {
+        if (node == null) return null;
+        int cmp = compare(playerId, score, node);
+        if (cmp < 0) {
+            node.left = remove(node.left, playerId, score);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, playerId, score);
+        } else {
+            return merge(node.left, node.right);
+        }
+        resize(node);
+        return node;
+    }
+
+    // Join two treaps where every key in a sorts before every key in b
+    private static Node merge(Node a, Node b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            resize(a);
+            return a;
+        }
+        b.left = merge(a, b.left);
+        resize(b);
+        return b;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        resize(node);
+        resize(left);
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        resize(node);
+        resize(right);
+        return right;
+    }
+
+    private static void resize(Node node) {
+        node.size = size(node.left) + size(node.right) + 1;
+    }
+
+    private static int size(Node node) {
+        return node != null ? node.size : 0;
+    }
+}
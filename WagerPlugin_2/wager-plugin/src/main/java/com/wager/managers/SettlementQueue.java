@@ -0,0 +1,375 @@
+package com.wager.managers;
+
+import com.wager.WagerPlugin;
+import com.wager.storage.WagerJournal;
+import com.wager.utils.FormatUtil;
+import com.wager.utils.SchedulerUtil;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
+/**
+ * Durable queue of money owed to players (payouts and refunds).
+ *
+ * Deposits queued during a tick are written to settlements.yml together, then applied
+ * through the economy as one batch. Entries stay on disk until the deposit itself is (for
+ * the built-in economy, until the balance store has flushed it), so a crash or a failed
+ * provider call never loses a payout. The built-in store skips a settlement it already
+ * holds, so entries left on disk by a crash are simply applied again on startup. Deposits
+ * that fail are retried when the player joins, and players who were paid while offline are
+ * told on join.
+ */
+public class SettlementQueue {
+
+    public enum Status {
+        OWED,         // Not deposited yet
+        PAID_OFFLINE, // Deposited while the player was offline, not yet announced
+        PAID          // Deposited and done; never applied again
+    }
+
+    private static final class Settlement {
+        final UUID id;
+        final UUID playerId;
+        final double amount;
+        final UUID wagerId;
+        final boolean closes;    // Pays out or refunds the wager's whole escrow
+        final boolean announced; // Loaded as PAID, so the player already knows
+        volatile Status status;
+        volatile boolean persisted; // On disk in settlements.yml, so its money may move
+        volatile boolean synced;    // Deposit is on disk, so the entry may leave settlements.yml
+        final AtomicBoolean inFlight = new AtomicBoolean();
+
+        Settlement(UUID id, UUID playerId, double amount, UUID wagerId, boolean closes,
+                   Status status, boolean persisted, boolean announced) {
+            this.id = id;
+            this.playerId = playerId;
+            this.amount = amount;
+            this.wagerId = wagerId;
+            this.closes = closes;
+            this.status = status;
+            this.persisted = persisted;
+            this.announced = announced;
+        }
+    }
+
+    private final WagerPlugin plugin;
+    private final File file;
+    private final Queue<Settlement> incoming = new ConcurrentLinkedQueue<>();
+    private final Map<UUID, Settlement> outstanding = new ConcurrentHashMap<>(); // settlementId -> Settlement
+    private final List<Settlement> unsaved = new ArrayList<>(); // drained but not yet on disk; guarded by flushLock
+    private final Queue<Settlement> unsynced = new ConcurrentLinkedQueue<>(); // paid, deposit not yet on disk
+    private final Set<CompletableFuture<?>> deposits = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final Object flushLock = new Object();
+    private volatile boolean running = false;
+
+    public SettlementQueue(WagerPlugin plugin) {
+        this.plugin = plugin;
+        this.file = new File(plugin.getDataFolder(), "settlements.yml");
+    }
+
+    /**
+     * Load outstanding settlements and start the per-tick flusher
+     */
+    public void start() {
+        List<Settlement> owed = load();
+        running = true;
+
+        // Ids the store remembers for settlements no longer in the file can never come back
+        synchronized (flushLock) {
+            plugin.getEconomyManager().retainSettlements(new HashSet<>(outstanding.keySet()));
+        }
+
+        // Already on disk, so anything owed from the last run can be retried straight away
+        for (Settlement settlement : owed) {
+            apply(settlement);
+        }
+
+        SchedulerUtil.runTaskTimerAsync(plugin, cancel -> {
+            if (!running) {
+                cancel.run();
+                return;
+            }
+            flush();
+        }, 1L, 1L);
+    }
+
+    /**
+     * Queue a deposit. It is persisted and applied with the rest of this tick's batch.
+     */
+    public void enqueue(UUID playerId, double amount, UUID wagerId) {
+        enqueue(playerId, amount, wagerId, false);
+    }
+
+    /**
+     * Queue a deposit; {@code closesEscrow} marks the payout or refund that closed the wager's
+     * escrow, so recovery can tell a settled wager from one still holding stakes
+     */
+    public void enqueue(UUID playerId, double amount, UUID wagerId, boolean closesEscrow) {
+        if (amount <= 0) return;
+        incoming.add(new Settlement(UUID.randomUUID(), playerId, amount, wagerId, closesEscrow, Status.OWED, false, false));
+    }
+
+    private void flush() {
+        synchronized (flushLock) {
+            // Drained first, so any escrow it closes has its deposit in this batch or an earlier one
+            WagerJournal journal = plugin.getWagerJournal();
+            WagerJournal.Batch journalBatch = journal != null ? journal.prepare() : null;
+            syncPaid();
+
+            Settlement next;
+            while ((next = incoming.poll()) != null) {
+                outstanding.put(next.id, next);
+                unsaved.add(next);
+            }
+            if (!unsaved.isEmpty()) dirty.set(true);
+
+            // Write ahead: owed entries are on disk before any money moves. If the write
+            // fails the batch stays unsaved and unpaid, and is written again next tick.
+            boolean changed = dirty.getAndSet(false);
+            Set<UUID> kept = changed ? new HashSet<>(outstanding.keySet()) : null;
+            boolean saved = !changed || save();
+            if (journalBatch != null) {
+                if (saved) {
+                    journal.commit(journalBatch);
+                } else {
+                    journal.rollback(journalBatch);
+                }
+            }
+            if (!saved) return;
+            if (kept != null) {
+                // Entries dropped before this save are gone from disk, so they can't be applied again
+                plugin.getEconomyManager().retainSettlements(kept);
+            }
+
+            List<Settlement> batch = new ArrayList<>(unsaved);
+            unsaved.clear();
+            for (Settlement settlement : batch) {
+                settlement.persisted = true;
+            }
+            for (Settlement settlement : batch) {
+                apply(settlement);
+            }
+        }
+    }
+
+    /**
+     * Drop paid entries once the economy has their deposits on disk. Until then they stay in
+     * settlements.yml, so a crash re-applies them. Called with flushLock held.
+     */
+    private void syncPaid() {
+        if (unsynced.isEmpty()) return;
+        List<Settlement> paid = new ArrayList<>();
+        Settlement next;
+        while ((next = unsynced.poll()) != null) {
+            paid.add(next);
+        }
+        if (!plugin.getEconomyManager().syncBalances()) {
+            unsynced.addAll(paid);
+            return;
+        }
+
+        for (Settlement settlement : paid) {
+            settlement.synced = true;
+            // Offline payouts are kept until they've been announced
+            if (settlement.status == Status.PAID) {
+                outstanding.remove(settlement.id, settlement);
+            }
+        }
+        dirty.set(true);
+    }
+
+    private void apply(Settlement settlement) {
+        if (!settlement.inFlight.compareAndSet(false, true)) return;
+        // Already paid, or not written down yet: a flush and a join can both get here
+        if (settlement.status != Status.OWED || !settlement.persisted || outstanding.get(settlement.id) != settlement) {
+            settlement.inFlight.set(false);
+            return;
+        }
+
+        OfflinePlayer player = Bukkit.getOfflinePlayer(settlement.playerId);
+        CompletableFuture<EconomyManager.Result> deposit =
+                plugin.getEconomyManager().depositAsync(player, settlement.amount, settlement.wagerId, settlement.id);
+        deposits.add(deposit);
+        deposit.whenComplete((result, error) -> {
+            deposits.remove(deposit);
+            if (error != null || !result.success()) {
+                // Stays owed; retried when the player next joins
+                if (error != null) {
+                    plugin.getLogger().log(Level.WARNING, "Deposit of " + settlement.amount + " to " + settlement.playerId + " failed", error);
+                }
+                settlement.inFlight.set(false);
+                return;
+            }
+
+            // Leave OWED before releasing the flag, so no later apply can pay it again
+            settlement.status = player.isOnline() || settlement.announced ? Status.PAID : Status.PAID_OFFLINE;
+            unsynced.add(settlement);
+            dirty.set(true);
+            settlement.inFlight.set(false);
+        });
+    }
+
+    /**
+     * Retry owed deposits and announce offline payouts for a joining player
+     */
+    public void handleJoin(Player player) {
+        double paidOffline = 0;
+        for (Settlement settlement : outstanding.values()) {
+            if (!settlement.playerId.equals(player.getUniqueId())) continue;
+
+            if (settlement.status == Status.OWED) {
+                apply(settlement); // skipped until the entry is on disk
+            } else if (settlement.status == Status.PAID_OFFLINE) {
+                settlement.status = Status.PAID;
+                // Otherwise syncPaid() drops it once the deposit is on disk
+                if (settlement.synced) outstanding.remove(settlement.id, settlement);
+                paidOffline += settlement.amount;
+                dirty.set(true);
+            }
+        }
+
+        if (paidOffline > 0) {
+            player.sendMessage(ChatColor.GREEN + "✔ You received " + ChatColor.GOLD + FormatUtil.formatMoney(paidOffline)
+                    + ChatColor.GREEN + " from wagers while you were offline.");
+        }
+    }
+
+    /**
+     * Flush everything queued, wait for the deposits to land and persist what's left
+     */
+    public void shutdown() {
+        running = false;
+        flush();
+
+        CompletableFuture<?>[] pending = deposits.toArray(new CompletableFuture<?>[0]);
+        try {
+            CompletableFuture.allOf(pending).get(10, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            plugin.getLogger().warning("Timed out waiting for settlements; they will be retried on next startup");
+        } catch (Exception ignored) {
+            // Individual failures stay owed
+        }
+
+        synchronized (flushLock) {
+            syncPaid();
+            if (!save()) {
+                plugin.getLogger().severe("Final save of " + file.getName() + " failed; " + unsaved.size()
+                        + " settlements that never reached disk were not paid");
+            }
+        }
+    }
+
+    public int getOutstandingCount() {
+        return outstanding.size();
+    }
+
+    /**
+     * Whether a deposit to the player from the wager is queued or still unpaid
+     */
+    public boolean hasOutstanding(UUID wagerId, UUID playerId) {
+        for (Settlement settlement : incoming) {
+            if (wagerId.equals(settlement.wagerId) && playerId.equals(settlement.playerId)) return true;
+        }
+        for (Settlement settlement : outstanding.values()) {
+            if (wagerId.equals(settlement.wagerId) && playerId.equals(settlement.playerId)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Whether the wager's escrow was closed by a payout or refund that is queued or still unpaid
+     */
+    public boolean hasClosingOutstanding(UUID wagerId) {
+        for (Settlement settlement : incoming) {
+            if (settlement.closes && wagerId.equals(settlement.wagerId)) return true;
+        }
+        for (Settlement settlement : outstanding.values()) {
+            if (settlement.closes && wagerId.equals(settlement.wagerId)) return true;
+        }
+        return false;
+    }
+
+    // --- Persistence ---
+
+    private boolean save() {
+        YamlConfiguration config = new YamlConfiguration();
+        for (Settlement settlement : outstanding.values()) {
+            String path = settlement.id.toString();
+            config.set(path + ".player", settlement.playerId.toString());
+            config.set(path + ".amount", settlement.amount);
+            if (settlement.wagerId != null) config.set(path + ".wager", settlement.wagerId.toString());
+            if (settlement.closes) config.set(path + ".closes", true);
+            config.set(path + ".status", settlement.status.name());
+        }
+
+        File tmp = new File(file.getPath() + ".tmp");
+        try {
+            Files.writeString(tmp.toPath(), config.saveToString(), StandardCharsets.UTF_8);
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException e) {
+            dirty.set(true);
+            plugin.getLogger().log(Level.SEVERE, "Failed to save " + file.getName(), e);
+            return false;
+        }
+    }
+
+    private List<Settlement> load() {
+        List<Settlement> owed = new ArrayList<>();
+        if (!file.exists()) return owed;
+
+        // A paid built-in entry may have died with the balances before they were flushed, so every
+        // entry is applied again and the store skips the ones it holds. Vault deposits are final.
+        boolean reapply = !plugin.getEconomyManager().isUsingVault();
+        YamlConfiguration config = YamlConfiguration.loadConfiguration(file);
+        for (String key : config.getKeys(false)) {
+            ConfigurationSection section = config.getConfigurationSection(key);
+            if (section == null) continue;
+            try {
+                String wager = section.getString("wager");
+                Status status = Status.valueOf(section.getString("status", Status.OWED.name()));
+                if (status == Status.PAID && !reapply) continue;
+                Settlement settlement = new Settlement(UUID.fromString(key),
+                        UUID.fromString(section.getString("player", "")),
+                        section.getDouble("amount"),
+                        wager != null ? UUID.fromString(wager) : null,
+                        section.getBoolean("closes"),
+                        reapply ? Status.OWED : status, true, status == Status.PAID);
+                settlement.synced = settlement.status != Status.OWED;
+                outstanding.put(settlement.id, settlement);
+                if (settlement.status == Status.OWED) owed.add(settlement);
+            } catch (IllegalArgumentException e) {
+                plugin.getLogger().warning("Skipping invalid settlement entry: " + key);
+            }
+        }
+
+        if (!owed.isEmpty()) {
+            plugin.getLogger().info("Retrying " + owed.size() + " outstanding wager settlements");
+        }
+        return owed;
+    }
+}
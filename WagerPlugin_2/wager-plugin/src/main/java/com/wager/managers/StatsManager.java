@@ -0,0 +1,193 @@
+package com.wager.managers;
+
+import com.wager.WagerPlugin;
+import com.wager.events.WagerEventBus;
+import com.wager.events.WagerFinishEvent;
+import com.wager.events.WagerUpdate;
+import com.wager.storage.StatsStore;
+import com.wager.utils.OrderedExecutor;
+import com.wager.utils.SchedulerUtil;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wins, losses, profit, tax paid and an Elo rating per player, plus a history of finished matches.
+ *
+ * Records live in a bounded LRU cache; players are loaded when they join and evicted once
+ * they haven't been looked at for a while. Finished matches are handed over by the finish
+ * path itself, not through the {@link WagerEventBus} (whose queues drop updates when full),
+ * and applied on a single stats thread, so the main thread never reads or writes a stats file. Changed records are pinned in memory until the next
+ * periodic flush writes them out in one batch.
+ */
+public class StatsManager {
+
+    // How far one match can move a rating
+    private static final double K_FACTOR = 32.0;
+
+    // Key that flush tasks are queued under, behind any updates already submitted
+    private static final UUID FLUSH_KEY = new UUID(0, 0);
+
+    private final WagerPlugin plugin;
+    private final StatsStore store;
+    private final OrderedExecutor executor;
+    private final Map<UUID, PlayerStats> cache;
+    private final Map<UUID, PlayerStats> dirty = new ConcurrentHashMap<>();
+    private final Queue<MatchRecord> pendingHistory = new ConcurrentLinkedQueue<>();
+    private final Leaderboards leaderboards = new Leaderboards();
+    private volatile boolean running = false;
+
+    public StatsManager(WagerPlugin plugin) {
+        this.plugin = plugin;
+        this.store = new StatsStore(plugin.getDataFolder(), plugin.getLogger());
+        // Every stats task runs on one thread: a match touches two players' records at once
+        this.executor = new OrderedExecutor("WagerPlugin-Stats", 1);
+
+        int capacity = Math.max(16, plugin.getConfig().getInt("stats-cache-size", 1000));
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, PlayerStats> eldest) {
+                return size() > capacity;
+            }
+        });
+    }
+
+    public void start() {
+        running = true;
+        // Fill the leaderboards before any match update is queued behind it
+        executor.submit(FLUSH_KEY, () -> {
+            long started = System.nanoTime();
+            List<PlayerStats> all = store.loadAll();
+            for (PlayerStats stats : all) {
+                leaderboards.update(stats);
+            }
+            plugin.getLogger().info("Loaded stats for " + all.size() + " players in "
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) + "ms");
+            return null;
+        });
+        long interval = Math.max(1, plugin.getConfig().getLong("stats-save-interval", 30)) * 20L;
+        SchedulerUtil.runTaskTimerAsync(plugin, cancel -> {
+            if (!running) {
+                cancel.run();
+                return;
+            }
+            executor.submit(FLUSH_KEY, () -> {
+                flush();
+                return null;
+            });
+        }, interval, interval);
+    }
+
+    /**
+     * Stop taking updates, finish the queued ones and write everything still unsaved
+     */
+    public void shutdown() {
+        running = false;
+        if (!executor.shutdown(5, TimeUnit.SECONDS)) {
+            plugin.getLogger().warning("Timed out waiting for pending stats updates");
+        }
+        flush();
+    }
+
+    /**
+     * Queue a finished match for the stats thread. Never dropped: the executor's queue is unbounded.
+     */
+    public void recordFinish(WagerFinishEvent event) {
+        WagerUpdate update = event.toUpdate();
+        if (!running || update.winner() == null) return;
+        executor.submit(update.wagerId(), () -> {
+            recordMatch(update);
+            return null;
+        });
+    }
+
+    /**
+     * The player's record if it is already in memory, otherwise null. Never touches disk,
+     * so it is safe for GUI code; call {@link #warm} to have a missing record loaded.
+     */
+    public PlayerStats getCached(UUID playerId) {
+        PlayerStats stats = dirty.get(playerId);
+        return stats != null ? stats : cache.get(playerId);
+    }
+
+    public Leaderboards getLeaderboards() {
+        return leaderboards;
+    }
+
+    /**
+     * Load the player's record into the cache in the background if it isn't there yet
+     */
+    public void warm(UUID playerId) {
+        if (getCached(playerId) != null || !running) return;
+        executor.submit(playerId, () -> load(playerId));
+    }
+
+    // Stats thread only
+    private PlayerStats load(UUID playerId) {
+        PlayerStats stats = getCached(playerId);
+        if (stats == null) {
+            stats = store.load(playerId);
+            cache.put(playerId, stats);
+        }
+        return stats;
+    }
+
+    // Stats thread only
+    private void recordMatch(WagerUpdate update) {
+        UUID winnerId = update.winner();
+        UUID loserId = update.loser();
+        PlayerStats winner = load(winnerId);
+        PlayerStats loser = load(loserId);
+
+        double expected = 1.0 / (1.0 + Math.pow(10, (loser.rating() - winner.rating()) / 400.0));
+        double change = K_FACTOR * (1.0 - expected);
+        double tax = Math.max(0, update.amount() * 2 - update.payout());
+        long now = update.timestamp();
+
+        update(winner.withWin(update.payout() - update.amount(), tax, winner.rating() + change, now));
+        update(loser.withLoss(update.amount(), loser.rating() - change, now));
+        pendingHistory.add(new MatchRecord(now, update.wagerId(), winnerId, loserId, update.amount(),
+                update.payout(), tax, update.kitId(), change));
+    }
+
+    private void update(PlayerStats stats) {
+        dirty.put(stats.playerId(), stats);
+        cache.put(stats.playerId(), stats);
+        leaderboards.update(stats);
+    }
+
+    /**
+     * Write changed records and new history lines in one batch. Records that fail to save
+     * stay pinned and are retried on the next flush.
+     */
+    private void flush() {
+        if (!dirty.isEmpty()) {
+            List<PlayerStats> batch = new ArrayList<>(dirty.values());
+            if (store.save(batch)) {
+                // Only unpin records that weren't changed again while writing
+                for (PlayerStats stats : batch) {
+                    dirty.remove(stats.playerId(), stats);
+                }
+            }
+        }
+
+        if (!pendingHistory.isEmpty()) {
+            List<MatchRecord> matches = new ArrayList<>();
+            MatchRecord match;
+            while ((match = pendingHistory.poll()) != null) {
+                matches.add(match);
+            }
+            if (!store.appendHistory(matches)) {
+                pendingHistory.addAll(matches);
+            }
+        }
+    }
+}
@@ -1,7 +1,18 @@
 package com.wager.managers;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * A single wager. The lifecycle state only moves through compare-and-set transitions
+ * checked against {@link #LEGAL_TRANSITIONS}, so two threads (e.g. two Folia regions)
+ * racing to accept, finish or cancel the same wager can't both win.
+ */
 public class Wager {
 
     public enum WagerState {
@@ -12,22 +23,43 @@ public class Wager {
         FINISHED      // Wager is over
     }
 
+    private static final Map<WagerState, Set<WagerState>> LEGAL_TRANSITIONS = new EnumMap<>(WagerState.class);
+
+    static {
+        LEGAL_TRANSITIONS.put(WagerState.WAITING, EnumSet.of(WagerState.ACCEPTED, WagerState.FINISHED));
+        LEGAL_TRANSITIONS.put(WagerState.ACCEPTED, EnumSet.of(WagerState.WAITING, WagerState.COUNTDOWN, WagerState.FINISHED));
+        LEGAL_TRANSITIONS.put(WagerState.COUNTDOWN, EnumSet.of(WagerState.IN_PROGRESS, WagerState.FINISHED));
+        LEGAL_TRANSITIONS.put(WagerState.IN_PROGRESS, EnumSet.of(WagerState.FINISHED));
+        LEGAL_TRANSITIONS.put(WagerState.FINISHED, EnumSet.noneOf(WagerState.class));
+    }
+
+    private static final Set<WagerState> LIVE_STATES = Collections.unmodifiableSet(
+            EnumSet.complementOf(EnumSet.of(WagerState.FINISHED)));
+
     private final UUID id;
     private final UUID creator;
     private final String creatorName;
-    private UUID opponent;
-    private String opponentName;
+    private volatile UUID opponent;
+    private volatile String opponentName;
     private final double amount;
-    private WagerState state;
-    private String arenaId;
+    private final String kitId;
+    private final AtomicReference<WagerState> state = new AtomicReference<>(WagerState.WAITING);
+    private volatile String arenaId;
     private long createdAt;
 
     public Wager(UUID creator, String creatorName, double amount) {
+        this(creator, creatorName, amount, null);
+    }
+
+    /**
+     * @param kitId the kit both fighters get, or null for the default kit
+     */
+    public Wager(UUID creator, String creatorName, double amount, String kitId) {
         this.id = UUID.randomUUID();
         this.creator = creator;
         this.creatorName = creatorName;
         this.amount = amount;
-        this.state = WagerState.WAITING;
+        this.kitId = kitId;
         this.createdAt = System.currentTimeMillis();
     }
 
@@ -37,7 +69,8 @@ public class Wager {
     public UUID getOpponent() { return opponent; }
     public String getOpponentName() { return opponentName; }
     public double getAmount() { return amount; }
-    public WagerState getState() { return state; }
+    public String getKitId() { return kitId; }
+    public WagerState getState() { return state.get(); }
     public String getArenaId() { return arenaId; }
     public long getCreatedAt() { return createdAt; }
 
@@ -46,8 +79,37 @@ public class Wager {
         this.opponentName = opponentName;
     }
 
-    public void setState(WagerState state) {
-        this.state = state;
+    /**
+     * Move from {@code from} to {@code to} if the wager is still in {@code from}.
+     * Returns false if another thread got there first.
+     *
+     * @throws IllegalStateException if the table doesn't allow {@code from -> to}
+     */
+    public boolean transition(WagerState from, WagerState to) {
+        if (!LEGAL_TRANSITIONS.get(from).contains(to)) {
+            throw new IllegalStateException("Illegal wager transition " + from + " -> " + to);
+        }
+        return state.compareAndSet(from, to);
+    }
+
+    /**
+     * Move to {@code to} from whichever of {@code from} the wager is currently in.
+     * Returns the state it left, or null if it wasn't in any of them.
+     */
+    public WagerState transitionFrom(Set<WagerState> from, WagerState to) {
+        while (true) {
+            WagerState current = state.get();
+            if (!from.contains(current) || !LEGAL_TRANSITIONS.get(current).contains(to)) return null;
+            if (state.compareAndSet(current, to)) return current;
+        }
+    }
+
+    /**
+     * Finish the wager from any live state. Returns the state it left, or null if it
+     * was already finished.
+     */
+    public WagerState finish() {
+        return transitionFrom(LIVE_STATES, WagerState.FINISHED);
     }
 
     public void setArenaId(String arenaId) {
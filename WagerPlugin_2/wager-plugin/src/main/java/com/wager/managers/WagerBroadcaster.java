@@ -0,0 +1,98 @@
+package com.wager.managers;
+
+import com.wager.WagerPlugin;
+import com.wager.utils.FormatUtil;
+import com.wager.utils.SchedulerUtil;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+/**
+ * Announces new wagers in chat.
+ *
+ * Listings are collected and announced together every few seconds instead of one chat
+ * line per wager: a single new wager gets the usual announcement, a burst gets one digest
+ * line ("5 new wagers, up to $50K"). The message is built once per announcement and the
+ * same component is sent to every player who hasn't turned announcements off.
+ */
+public class WagerBroadcaster {
+
+    private final WagerPlugin plugin;
+    private final PlayerPreferences preferences;
+
+    // Listings since the last announcement; guarded by this
+    private int pendingCount = 0;
+    private double pendingMax = 0;
+    private String firstCreator;
+    private double firstAmount;
+
+    public WagerBroadcaster(WagerPlugin plugin, PlayerPreferences preferences) {
+        this.plugin = plugin;
+        this.preferences = preferences;
+    }
+
+    public void start() {
+        long interval = Math.max(1, plugin.getConfig().getLong("broadcast-interval", 3)) * 20L;
+        SchedulerUtil.runTaskTimer(plugin, cancel -> {
+            if (!plugin.isEnabled()) {
+                cancel.run();
+                return;
+            }
+            announcePending();
+        }, interval, interval);
+    }
+
+    /**
+     * Queue a new listing for the next announcement
+     */
+    public synchronized void listed(String creatorName, double amount) {
+        if (pendingCount == 0) {
+            firstCreator = creatorName;
+            firstAmount = amount;
+        }
+        pendingCount++;
+        pendingMax = Math.max(pendingMax, amount);
+    }
+
+    private void announcePending() {
+        Component message;
+        synchronized (this) {
+            if (pendingCount == 0) return;
+            message = pendingCount == 1 ? single(firstCreator, firstAmount) : digest(pendingCount, pendingMax);
+            pendingCount = 0;
+            pendingMax = 0;
+            firstCreator = null;
+        }
+
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            if (!preferences.isSet(player.getUniqueId(), PlayerPreferences.Preference.HIDE_BROADCASTS)) {
+                player.sendMessage(message);
+            }
+        }
+    }
+
+    private static Component single(String creatorName, double amount) {
+        return Component.text("⚔ ", NamedTextColor.GOLD)
+                .append(Component.text(creatorName, NamedTextColor.YELLOW))
+                .append(Component.text(" has created a wager for ", NamedTextColor.GOLD))
+                .append(Component.text(FormatUtil.formatMoney(amount), NamedTextColor.GREEN))
+                .append(acceptHint());
+    }
+
+    private static Component digest(int count, double max) {
+        return Component.text("⚔ ", NamedTextColor.GOLD)
+                .append(Component.text(count + " new wagers", NamedTextColor.YELLOW))
+                .append(Component.text(", up to ", NamedTextColor.GOLD))
+                .append(Component.text(FormatUtil.formatShort(max), NamedTextColor.GREEN))
+                .append(acceptHint());
+    }
+
+    private static Component acceptHint() {
+        return Component.text("! Use ", NamedTextColor.GOLD)
+                .append(Component.text("/wager", NamedTextColor.YELLOW))
+                .append(Component.text(" to accept!", NamedTextColor.GOLD))
+                .clickEvent(ClickEvent.runCommand("/wager"));
+    }
+}
@@ -0,0 +1,64 @@
+package com.wager.managers;
+
+import com.wager.WagerPlugin;
+import com.wager.utils.HierarchicalTimingWheel;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Time limits for wagers: listings that sit in WAITING too long and matches that run
+ * past the maximum duration are cancelled and refunded through the normal cancel path.
+ *
+ * Deadlines live in a {@link HierarchicalTimingWheel} advanced once a second from the
+ * match clock, so expiring thousands of listings costs O(1) per tick. Each wager has at
+ * most one live deadline; scheduling a new one replaces the old.
+ */
+public class WagerExpiry {
+
+    public enum Kind {
+        LISTING,  // WAITING for too long
+        MATCH     // IN_PROGRESS for too long
+    }
+
+    private record Deadline(UUID wagerId, Kind kind) {}
+
+    private static final long TICKS_PER_SECOND = 20L;
+
+    private final WagerPlugin plugin;
+    // One wheel tick per second; 4 levels cover about 194 days
+    private final HierarchicalTimingWheel<Deadline> wheel = new HierarchicalTimingWheel<>(4);
+    private final Map<UUID, HierarchicalTimingWheel.Timeout<Deadline>> deadlines = new ConcurrentHashMap<>(); // wagerId -> live deadline
+
+    public WagerExpiry(WagerPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    public void start() {
+        plugin.getMatchClock().runTimer(cancel -> wheel.advance(this::expire), TICKS_PER_SECOND, TICKS_PER_SECOND);
+    }
+
+    /**
+     * Expire the wager after {@code seconds} unless it moves on first; 0 or less means never
+     */
+    public void schedule(Wager wager, Kind kind, long seconds) {
+        if (seconds <= 0) {
+            cancel(wager.getId());
+            return;
+        }
+        HierarchicalTimingWheel.Timeout<Deadline> previous =
+                deadlines.put(wager.getId(), wheel.schedule(seconds, new Deadline(wager.getId(), kind)));
+        if (previous != null) previous.cancel();
+    }
+
+    public void cancel(UUID wagerId) {
+        HierarchicalTimingWheel.Timeout<Deadline> timeout = deadlines.remove(wagerId);
+        if (timeout != null) timeout.cancel();
+    }
+
+    private void expire(Deadline deadline) {
+        deadlines.remove(deadline.wagerId());
+        plugin.getWagerManager().expireWager(deadline.wagerId(), deadline.kind());
+    }
+}
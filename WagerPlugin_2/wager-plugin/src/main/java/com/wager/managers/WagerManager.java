@@ -1,118 +1,319 @@
 package com.wager.managers;
 
 import com.wager.WagerPlugin;
+import com.wager.config.Kit;
+import com.wager.config.Message;
+import com.wager.config.Messages;
+import com.wager.config.Param;
+import com.wager.config.WagerSettings;
+import com.wager.events.WagerAcceptEvent;
+import com.wager.events.WagerCancelEvent;
+import com.wager.events.WagerCountdownEvent;
+import com.wager.events.WagerCreateEvent;
+import com.wager.events.WagerFinishEvent;
+import com.wager.events.WagerStartEvent;
 import com.wager.arena.Arena;
+import com.wager.arena.ArenaLease;
+import com.wager.arena.ArenaPool;
+import com.wager.arena.MatchAudience;
 import com.wager.utils.FormatUtil;
 import com.wager.utils.SchedulerUtil;
+import net.kyori.adventure.key.Key;
+import net.kyori.adventure.sound.Sound;
+import net.kyori.adventure.title.Title;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.GameMode;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
-import org.bukkit.inventory.ItemStack;
 import org.bukkit.potion.PotionEffect;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.logging.Level;
 
 public class WagerManager {
 
+    // Title fade in, stay and fade out
+    private static final Title.Times STARTING_TIMES = times(10, 40, 10);
+    private static final Title.Times COUNTDOWN_TIMES = times(5, 15, 5);
+    private static final Title.Times FIGHT_TIMES = times(5, 20, 5);
+    private static final Title.Times RESULT_TIMES = times(10, 60, 20);
+
+    private static final Sound COUNTDOWN_SOUND = sound("block.note_block.pling", 1f);
+    private static final Sound FIGHT_SOUND = sound("entity.ender_dragon.growl", 1.5f);
+    private static final Sound WIN_SOUND = sound("ui.toast.challenge_complete", 1f);
+    private static final Sound LOSE_SOUND = sound("entity.villager.no", 0.5f);
+
     private final WagerPlugin plugin;
     private final Map<UUID, Wager> activeWagers = new ConcurrentHashMap<>(); // wagerId -> Wager
     private final Map<UUID, UUID> playerWagerMap = new ConcurrentHashMap<>(); // playerId -> wagerId
-    private final Map<UUID, ItemStack[]> savedInventories = new ConcurrentHashMap<>();
-    private final Map<UUID, ItemStack[]> savedArmor = new ConcurrentHashMap<>();
-    private final Map<UUID, Location> savedLocations = new ConcurrentHashMap<>();
+    private final WaitingWagerIndex waitingIndex = new WaitingWagerIndex();
+    private final Map<UUID, ArenaLease> arenaLeases = new ConcurrentHashMap<>(); // wagerId -> claimed arena
+    private final Map<UUID, ArenaPool.Waiter> arenaWaiters = new ConcurrentHashMap<>(); // wagerId -> place in arena queue
+    private final Map<UUID, PlayerSnapshot> savedStates = new ConcurrentHashMap<>();
+    private final Set<UUID> pendingTransactions = ConcurrentHashMap.newKeySet(); // players with a stake withdrawal in flight
 
     public WagerManager(WagerPlugin plugin) {
         this.plugin = plugin;
     }
 
     /**
-     * Create a new wager listing
+     * Create a new wager listing, fought with the given kit (null for the default). The
+     * stake is withdrawn asynchronously and the wager is listed once the withdrawal goes through.
      */
-    public Wager createWager(Player creator, double amount) {
-        if (isInWager(creator.getUniqueId())) {
-            creator.sendMessage(ChatColor.RED + "You are already in a wager!");
-            return null;
-        }
+    public void createWager(Player creator, double amount, String kitId) {
+        // Listing a wager by hand replaces any matchmaking search
+        plugin.getMatchmaker().leave(creator.getUniqueId());
 
-        if (!plugin.getEconomyManager().hasEnough(creator, amount)) {
-            creator.sendMessage(ChatColor.RED + "You don't have enough money! Balance: " + FormatUtil.formatMoney(plugin.getEconomyManager().getBalance(creator)));
-            return null;
+        if (isInWager(creator.getUniqueId()) || pendingTransactions.contains(creator.getUniqueId())) {
+            creator.sendMessage(ChatColor.RED + "You are already in a wager!");
+            return;
         }
 
-        double min = plugin.getConfig().getDouble("min-wager", 100);
-        double max = plugin.getConfig().getDouble("max-wager", 1000000);
+        WagerSettings settings = plugin.getSettings();
+        double min = settings.getMinWager();
+        double max = settings.getMaxWager();
         if (amount < min || amount > max) {
             creator.sendMessage(ChatColor.RED + "Wager amount must be between " + FormatUtil.formatMoney(min) + " and " + FormatUtil.formatMoney(max));
-            return null;
+            return;
         }
 
-        Wager wager = new Wager(creator.getUniqueId(), creator.getName(), amount);
-        activeWagers.put(wager.getId(), wager);
-        playerWagerMap.put(creator.getUniqueId(), wager.getId());
+        Wager wager = new Wager(creator.getUniqueId(), creator.getName(), amount, kitId);
+        EscrowManager escrowManager = plugin.getEscrowManager();
+        pendingTransactions.add(creator.getUniqueId());
 
-        // Take money from creator
-        plugin.getEconomyManager().withdraw(creator, amount);
+        // Move creator's stake into escrow
+        afterWithdraw(creator, wager, escrowManager.hold(wager, creator), result -> {
+            if (!result.success()) {
+                escrowManager.refund(wager);
+                creator.sendMessage(ChatColor.RED + "You don't have enough money! Balance: " + FormatUtil.formatMoney(result.balance()));
+                return;
+            }
 
-        creator.sendMessage(ChatColor.GREEN + "✔ Wager created for " + ChatColor.GOLD + FormatUtil.formatMoney(amount) + ChatColor.GREEN + "! Waiting for opponent...");
+            activeWagers.put(wager.getId(), wager);
+            playerWagerMap.put(creator.getUniqueId(), wager.getId());
+            waitingIndex.add(wager);
+            journalState(wager);
+            plugin.getEventBus().publish(new WagerCreateEvent(wager));
+            plugin.getWagerExpiry().schedule(wager, WagerExpiry.Kind.LISTING, plugin.getSettings().getWaitingTtlSeconds());
 
-        // Broadcast
-        Bukkit.broadcastMessage(ChatColor.GOLD + "⚔ " + ChatColor.YELLOW + creator.getName() +
-                ChatColor.GOLD + " has created a wager for " + ChatColor.GREEN + FormatUtil.formatMoney(amount) +
-                ChatColor.GOLD + "! Use " + ChatColor.YELLOW + "/wager" + ChatColor.GOLD + " to accept!");
+            creator.sendMessage(ChatColor.GREEN + "✔ Wager created for " + ChatColor.GOLD + FormatUtil.formatMoney(amount) + ChatColor.GREEN + "! Waiting for opponent...");
 
-        return wager;
+            // Announced with any other new listings on the next broadcast
+            plugin.getBroadcaster().listed(creator.getName(), amount);
+        }, () -> escrowManager.refund(wager));
     }
 
     /**
-     * Accept a wager
+     * Accept a wager. The wager and an arena are reserved while the opponent's stake is
+     * withdrawn asynchronously; the match starts once it goes through. If every arena is
+     * busy the match stays escrowed and waits in line for the next free one.
      */
-    public boolean acceptWager(Player opponent, UUID wagerId) {
+    public void acceptWager(Player opponent, UUID wagerId) {
         Wager wager = activeWagers.get(wagerId);
-        if (wager == null || wager.getState() != Wager.WagerState.WAITING) {
+        if (wager == null) {
             opponent.sendMessage(ChatColor.RED + "This wager is no longer available!");
-            return false;
+            return;
         }
 
         if (wager.getCreator().equals(opponent.getUniqueId())) {
             opponent.sendMessage(ChatColor.RED + "You can't accept your own wager!");
-            return false;
+            return;
         }
 
-        if (isInWager(opponent.getUniqueId())) {
+        if (isInWager(opponent.getUniqueId()) || pendingTransactions.contains(opponent.getUniqueId())) {
             opponent.sendMessage(ChatColor.RED + "You are already in a wager!");
-            return false;
+            return;
         }
+        plugin.getMatchmaker().leave(opponent.getUniqueId());
 
-        if (!plugin.getEconomyManager().hasEnough(opponent, wager.getAmount())) {
-            opponent.sendMessage(ChatColor.RED + "You don't have enough money! Need: " + FormatUtil.formatMoney(wager.getAmount()));
-            return false;
+        // Only one accept can win the transition, so concurrent accepts can't both be charged
+        if (!wager.transition(Wager.WagerState.WAITING, Wager.WagerState.ACCEPTED)) {
+            opponent.sendMessage(ChatColor.RED + "This wager is no longer available!");
+            return;
         }
+        waitingIndex.remove(wager);
 
-        // Find available arena
-        Arena arena = plugin.getArenaManager().findAvailableArena();
-        if (arena == null) {
-            opponent.sendMessage(ChatColor.RED + "No arenas available! All arenas are currently in use. Please try again shortly.");
-            return false;
+        // Claim a free arena now if there is one; otherwise queue once the stake is in
+        ArenaLease lease = plugin.getArenaManager().claimArena();
+
+        // Reserve the wager and arena while the stake is withdrawn
+        EscrowManager escrowManager = plugin.getEscrowManager();
+        wager.setOpponent(opponent.getUniqueId(), opponent.getName());
+        if (lease != null) {
+            wager.setArenaId(lease.getArena().getId());
+            arenaLeases.put(wagerId, lease);
         }
+        pendingTransactions.add(opponent.getUniqueId());
+
+        Runnable release = () -> {
+            escrowManager.release(wager, opponent.getUniqueId());
+            if (lease != null) {
+                arenaLeases.remove(wagerId, lease);
+                lease.release();
+            }
+            // Clear the reservation before relisting so the next accept starts clean
+            wager.setOpponent(null, null);
+            wager.setArenaId(null);
+            if (wager.transition(Wager.WagerState.ACCEPTED, Wager.WagerState.WAITING)) {
+                waitingIndex.add(wager);
+            }
+        };
 
-        // Take money from opponent
-        plugin.getEconomyManager().withdraw(opponent, wager.getAmount());
+        // Move opponent's stake into escrow
+        afterWithdraw(opponent, wager, escrowManager.hold(wager, opponent), result -> {
+            if (!result.success()) {
+                release.run();
+                opponent.sendMessage(ChatColor.RED + "You don't have enough money! Need: " + FormatUtil.formatMoney(wager.getAmount()));
+                return;
+            }
 
-        // Set wager details
+            playerWagerMap.put(opponent.getUniqueId(), wagerId);
+            journalState(wager);
+            plugin.getEventBus().publish(new WagerAcceptEvent(wager));
+
+            if (lease != null) {
+                startWager(wager, lease.getArena());
+            } else {
+                queueForArena(wager);
+            }
+        }, release);
+    }
+
+    /**
+     * Start a match between two players paired by the {@link Matchmaker}. Both stakes are
+     * withdrawn into escrow together; the match then takes a free arena or waits for one.
+     * Returns false without touching either player if one of them {@link #isBusy is busy}.
+     */
+    public boolean createMatchedWager(Player creator, Player opponent, double amount) {
+        if (isBusy(creator.getUniqueId()) || isBusy(opponent.getUniqueId())) {
+            return false;
+        }
+
+        // Never listed, so it skips WAITING straight to an accepted match
+        Wager wager = new Wager(creator.getUniqueId(), creator.getName(), amount);
         wager.setOpponent(opponent.getUniqueId(), opponent.getName());
-        wager.setState(Wager.WagerState.ACCEPTED);
-        wager.setArenaId(arena.getId());
-        arena.setInUse(true);
-        playerWagerMap.put(opponent.getUniqueId(), wagerId);
+        wager.transition(Wager.WagerState.WAITING, Wager.WagerState.ACCEPTED);
+
+        EscrowManager escrowManager = plugin.getEscrowManager();
+        pendingTransactions.add(creator.getUniqueId());
+        pendingTransactions.add(opponent.getUniqueId());
+
+        CompletableFuture<EconomyManager.Result> creatorHold = escrowManager.hold(wager, creator);
+        CompletableFuture<EconomyManager.Result> opponentHold = escrowManager.hold(wager, opponent);
+        CompletableFuture.allOf(creatorHold, opponentHold).whenComplete((ignored, error) -> SchedulerUtil.runTask(plugin, () -> {
+            pendingTransactions.remove(creator.getUniqueId());
+            pendingTransactions.remove(opponent.getUniqueId());
+
+            boolean creatorPaid = error == null && creatorHold.join().success();
+            boolean opponentPaid = error == null && opponentHold.join().success();
+            if (!creatorPaid || !opponentPaid || !creator.isOnline() || !opponent.isOnline()) {
+                escrowManager.refund(wager);
+                wager.finish();
+                String message = ChatColor.RED + "Matched wager cancelled: "
+                        + (error != null ? "transaction failed" : !creatorPaid || !opponentPaid ? "not enough money" : "a player disconnected")
+                        + ChatColor.GRAY + " (stakes refunded)";
+                if (creator.isOnline()) creator.sendMessage(message);
+                if (opponent.isOnline()) opponent.sendMessage(message);
+                return;
+            }
 
-        // Start the wager
-        startWager(wager, arena);
+            activeWagers.put(wager.getId(), wager);
+            playerWagerMap.put(creator.getUniqueId(), wager.getId());
+            playerWagerMap.put(opponent.getUniqueId(), wager.getId());
+            journalState(wager);
+            plugin.getEventBus().publish(new WagerAcceptEvent(wager));
+
+            String found = ChatColor.GREEN + "✔ Match found for " + ChatColor.GOLD + FormatUtil.formatMoney(amount) + ChatColor.GREEN + "!";
+            creator.sendMessage(found + ChatColor.GRAY + " vs " + opponent.getName());
+            opponent.sendMessage(found + ChatColor.GRAY + " vs " + creator.getName());
+
+            ArenaLease lease = plugin.getArenaManager().claimArena();
+            if (lease == null) {
+                queueForArena(wager);
+                return;
+            }
+            wager.setArenaId(lease.getArena().getId());
+            arenaLeases.put(wager.getId(), lease);
+            startWager(wager, lease.getArena());
+        }));
         return true;
     }
 
+    /**
+     * Put an accepted, fully escrowed match in line for the next free arena
+     */
+    private void queueForArena(Wager wager) {
+        ArenaPool.Waiter waiter = plugin.getArenaManager().awaitArena(
+                lease -> SchedulerUtil.runTask(plugin, () -> onArenaAssigned(wager, lease)),
+                (position, etaMillis) -> {
+                    String text = ChatColor.YELLOW + "⌛ All arenas are busy. Your match is " + ChatColor.GOLD + "#" + position
+                            + ChatColor.YELLOW + " in line" + ChatColor.GRAY + " (~" + FormatUtil.formatDuration(etaMillis) + ")";
+                    Player creator = Bukkit.getPlayer(wager.getCreator());
+                    Player opponent = Bukkit.getPlayer(wager.getOpponent());
+                    if (creator != null) creator.sendMessage(text);
+                    if (opponent != null) opponent.sendMessage(text);
+                });
+        arenaWaiters.put(wager.getId(), waiter);
+
+        // Cancelled before the waiter was registered
+        if (wager.getState() != Wager.WagerState.ACCEPTED && waiter.cancel()) {
+            arenaWaiters.remove(wager.getId(), waiter);
+        }
+    }
+
+    private void onArenaAssigned(Wager wager, ArenaLease lease) {
+        arenaWaiters.remove(wager.getId());
+        if (wager.getState() != Wager.WagerState.ACCEPTED) {
+            lease.release();
+            return;
+        }
+
+        Arena arena = lease.getArena();
+        wager.setArenaId(arena.getId());
+        arenaLeases.put(wager.getId(), lease);
+        startWager(wager, arena);
+    }
+
+    public boolean isWaitingForArena(UUID wagerId) {
+        return arenaWaiters.containsKey(wagerId);
+    }
+
+    /**
+     * Continue on the player's thread once a stake withdrawal completes. If the player is
+     * gone by then (or the provider failed), {@code abort} runs and must return any stake taken.
+     */
+    private void afterWithdraw(Player player, Wager wager, CompletableFuture<EconomyManager.Result> withdrawal,
+                               Consumer<EconomyManager.Result> then, Runnable abort) {
+        withdrawal.whenComplete((result, error) -> {
+            if (error != null) {
+                plugin.getLogger().log(Level.WARNING, "Economy transaction failed for " + player.getName(), error);
+            }
+            Runnable cancel = () -> {
+                pendingTransactions.remove(player.getUniqueId());
+                abort.run();
+            };
+
+            boolean scheduled = SchedulerUtil.runEntityTask(plugin, player, () -> {
+                if (error != null || !player.isOnline()) {
+                    cancel.run();
+                    if (error != null) player.sendMessage(ChatColor.RED + "Transaction failed, please try again.");
+                    return;
+                }
+                pendingTransactions.remove(player.getUniqueId());
+                then.accept(result);
+            }, cancel);
+            if (!scheduled) {
+                // Player already left; Folia drops both callbacks, so return the stake here
+                cancel.run();
+            }
+        });
+    }
+
     /**
      * Start the wager match with countdown
      */
@@ -125,34 +326,44 @@ public class WagerManager {
             return;
         }
 
+        // Cancelled while the opponent's stake was in flight
+        if (!wager.transition(Wager.WagerState.ACCEPTED, Wager.WagerState.COUNTDOWN)) return;
+        journalState(wager);
+        plugin.getEventBus().publish(new WagerCountdownEvent(wager));
+
         // Save inventories and locations
         savePlayerState(creator);
         savePlayerState(opponent);
 
         // Prepare players
-        preparePlayer(creator);
-        preparePlayer(opponent);
+        Kit kit = plugin.getKits().get(wager.getKitId());
+        preparePlayer(creator, kit);
+        preparePlayer(opponent, kit);
 
         // Teleport to arena
         SchedulerUtil.teleportPlayer(plugin, creator, arena.getSpawn1());
         SchedulerUtil.teleportPlayer(plugin, opponent, arena.getSpawn2());
 
-        wager.setState(Wager.WagerState.COUNTDOWN);
+        // Fighters plus anyone who spectates; match-wide titles and sounds go through it
+        MatchAudience audience = plugin.getSpectatorManager().open(wager);
 
         // Send title: Wager Starting
-        String moneyText = FormatUtil.formatMoney(wager.getAmount());
-        creator.sendTitle(ChatColor.GOLD + "⚔ WAGER STARTING", ChatColor.YELLOW + "vs " + opponent.getName() + " §7| " + ChatColor.GREEN + moneyText, 10, 40, 10);
-        opponent.sendTitle(ChatColor.GOLD + "⚔ WAGER STARTING", ChatColor.YELLOW + "vs " + creator.getName() + " §7| " + ChatColor.GREEN + moneyText, 10, 40, 10);
+        Messages messages = plugin.getMessages();
+        Param.Arg amount = Param.AMOUNT.with(wager.getAmount());
+        creator.showTitle(messages.title(creator, Message.MATCH_STARTING_TITLE, Message.MATCH_STARTING_SUBTITLE,
+                STARTING_TIMES, Param.OPPONENT.with(opponent.getName()), amount));
+        opponent.showTitle(messages.title(opponent, Message.MATCH_STARTING_TITLE, Message.MATCH_STARTING_SUBTITLE,
+                STARTING_TIMES, Param.OPPONENT.with(creator.getName()), amount));
 
         // Freeze players during countdown
         creator.setWalkSpeed(0);
         opponent.setWalkSpeed(0);
 
-        int countdownSeconds = plugin.getConfig().getInt("countdown-seconds", 5);
+        int countdownSeconds = plugin.getSettings().getCountdownSeconds();
 
-        // Countdown
+        // Countdown, driven by the shared match clock
         int[] count = {countdownSeconds};
-        SchedulerUtil.runTaskTimer(plugin, cancel -> {
+        plugin.getMatchClock().runTimer(cancel -> {
             if (wager.getState() == Wager.WagerState.FINISHED) {
                 cancel.run();
                 return;
@@ -168,22 +379,26 @@ public class WagerManager {
 
             if (count[0] <= 0) {
                 // Start fight
-                wager.setState(Wager.WagerState.IN_PROGRESS);
+                if (!wager.transition(Wager.WagerState.COUNTDOWN, Wager.WagerState.IN_PROGRESS)) {
+                    cancel.run();
+                    return;
+                }
+                journalState(wager);
+                plugin.getEventBus().publish(new WagerStartEvent(wager));
+                plugin.getWagerExpiry().schedule(wager, WagerExpiry.Kind.MATCH, plugin.getSettings().getMaxMatchSeconds());
                 p1.setWalkSpeed(0.2f);
                 p2.setWalkSpeed(0.2f);
-                p1.sendTitle(ChatColor.RED + "⚔ FIGHT!", ChatColor.GRAY + "Kill your opponent!", 5, 20, 5);
-                p2.sendTitle(ChatColor.RED + "⚔ FIGHT!", ChatColor.GRAY + "Kill your opponent!", 5, 20, 5);
-                p1.playSound(p1.getLocation(), org.bukkit.Sound.ENTITY_ENDER_DRAGON_GROWL, 1f, 1.5f);
-                p2.playSound(p2.getLocation(), org.bukkit.Sound.ENTITY_ENDER_DRAGON_GROWL, 1f, 1.5f);
+                audience.showTitle(MatchAudience.Scope.EVERYONE, plugin.getMessages(),
+                        Message.FIGHT_TITLE, Message.FIGHT_SUBTITLE, FIGHT_TIMES);
+                audience.playSound(MatchAudience.Scope.EVERYONE, FIGHT_SOUND);
                 cancel.run();
                 return;
             }
 
-            ChatColor countColor = count[0] <= 3 ? ChatColor.RED : ChatColor.YELLOW;
-            p1.sendTitle(countColor + "" + count[0], ChatColor.GRAY + "Get ready...", 5, 15, 5);
-            p2.sendTitle(countColor + "" + count[0], ChatColor.GRAY + "Get ready...", 5, 15, 5);
-            p1.playSound(p1.getLocation(), org.bukkit.Sound.BLOCK_NOTE_BLOCK_PLING, 1f, 1f);
-            p2.playSound(p2.getLocation(), org.bukkit.Sound.BLOCK_NOTE_BLOCK_PLING, 1f, 1f);
+            Message countTitle = count[0] <= 3 ? Message.COUNTDOWN_FINAL_TITLE : Message.COUNTDOWN_TITLE;
+            audience.showTitle(MatchAudience.Scope.EVERYONE, plugin.getMessages(),
+                    countTitle, Message.COUNTDOWN_SUBTITLE, COUNTDOWN_TIMES, Param.COUNT.with(count[0]));
+            audience.playSound(MatchAudience.Scope.EVERYONE, COUNTDOWN_SOUND);
             count[0]--;
         }, 20L, 20L);
     }
@@ -196,7 +411,11 @@ public class WagerManager {
         if (wagerId == null) return;
 
         Wager wager = activeWagers.get(wagerId);
-        if (wager == null || wager.getState() != Wager.WagerState.IN_PROGRESS) return;
+        if (wager == null) return;
+
+        // Only the first death/forfeit finishes the match, so the pot is paid once
+        if (wager.transitionFrom(EnumSet.of(Wager.WagerState.COUNTDOWN, Wager.WagerState.IN_PROGRESS),
+                Wager.WagerState.FINISHED) == null) return;
 
         // Determine winner
         UUID winnerId = wager.getCreator().equals(dead.getUniqueId()) ? wager.getOpponent() : wager.getCreator();
@@ -205,47 +424,55 @@ public class WagerManager {
         Player winner = Bukkit.getPlayer(winnerId);
         Player loser = Bukkit.getPlayer(loserId);
 
-        wager.setState(Wager.WagerState.FINISHED);
+        // Pay the pot minus tax out of escrow, whether or not the winner is still online
+        EscrowManager.Settlement settlement = plugin.getEscrowManager().settle(wager, winnerId);
+        if (settlement == null) {
+            plugin.getLogger().warning("Wager " + wagerId + " finished but its escrow was already closed");
+            plugin.getMatchClock().runLater(() -> endWager(wager), 60L);
+            return;
+        }
+        WagerFinishEvent finishEvent = new WagerFinishEvent(wager, winnerId, loserId, settlement);
+        plugin.getEventBus().publish(finishEvent);
+        // Directly, not via the event bus, so a backed-up subscriber queue can't lose a result
+        plugin.getStatsManager().recordFinish(finishEvent);
 
-        // Calculate winnings
-        double totalPot = wager.getAmount() * 2;
-        double tax = plugin.getEconomyManager().calculateTax(totalPot);
-        double winnings = totalPot - tax;
+        double totalPot = settlement.pot();
+        double tax = settlement.tax();
+        double winnings = settlement.payout();
 
-        // Pay winner
+        Messages messages = plugin.getMessages();
         if (winner != null) {
-            plugin.getEconomyManager().deposit(winner, winnings);
-            winner.sendTitle(ChatColor.GREEN + "✔ YOU WON!",
-                    ChatColor.GOLD + "+" + FormatUtil.formatMoney(winnings) + ChatColor.GRAY + " (" + FormatUtil.formatMoney(tax) + " tax)",
-                    10, 60, 20);
-            winner.sendMessage("");
-            winner.sendMessage(ChatColor.GREEN + "━━━━━━━━━━━━━━━━━━━━━━━━━━━");
-            winner.sendMessage(ChatColor.GREEN + "  ✔ WAGER WON!");
-            winner.sendMessage(ChatColor.GRAY + "  Opponent: " + ChatColor.WHITE + (loser != null ? loser.getName() : "Unknown"));
-            winner.sendMessage(ChatColor.GRAY + "  Pot: " + ChatColor.GOLD + FormatUtil.formatMoney(totalPot));
-            winner.sendMessage(ChatColor.GRAY + "  Tax (" + plugin.getConfig().getDouble("tax-percent") + "%): " + ChatColor.RED + "-" + FormatUtil.formatMoney(tax));
-            winner.sendMessage(ChatColor.GRAY + "  Winnings: " + ChatColor.GREEN + "+" + FormatUtil.formatMoney(winnings));
-            winner.sendMessage(ChatColor.GREEN + "━━━━━━━━━━━━━━━━━━━━━━━━━━━");
-            winner.sendMessage("");
-            winner.playSound(winner.getLocation(), org.bukkit.Sound.UI_TOAST_CHALLENGE_COMPLETE, 1f, 1f);
+            Param.Arg winningsArg = Param.WINNINGS.with(winnings);
+            Param.Arg taxArg = Param.TAX.with(tax);
+            winner.showTitle(messages.title(winner, Message.WON_TITLE, Message.WON_SUBTITLE, RESULT_TIMES, winningsArg, taxArg));
+            messages.send(winner, Message.WON_SUMMARY,
+                    Param.OPPONENT.with(loser != null ? loser.getName() : "Unknown"),
+                    Param.POT.with(totalPot),
+                    taxArg,
+                    Param.TAX_PERCENT.with(plugin.getSettings().getTaxPercent()),
+                    winningsArg);
+            winner.playSound(WIN_SOUND);
         }
 
         if (loser != null) {
-            loser.sendTitle(ChatColor.RED + "✘ YOU LOST!",
-                    ChatColor.GRAY + "-" + FormatUtil.formatMoney(wager.getAmount()),
-                    10, 60, 20);
-            loser.sendMessage("");
-            loser.sendMessage(ChatColor.RED + "━━━━━━━━━━━━━━━━━━━━━━━━━━━");
-            loser.sendMessage(ChatColor.RED + "  ✘ WAGER LOST!");
-            loser.sendMessage(ChatColor.GRAY + "  Opponent: " + ChatColor.WHITE + (winner != null ? winner.getName() : "Unknown"));
-            loser.sendMessage(ChatColor.GRAY + "  Amount Lost: " + ChatColor.RED + "-" + FormatUtil.formatMoney(wager.getAmount()));
-            loser.sendMessage(ChatColor.RED + "━━━━━━━━━━━━━━━━━━━━━━━━━━━");
-            loser.sendMessage("");
-            loser.playSound(loser.getLocation(), org.bukkit.Sound.ENTITY_VILLAGER_NO, 1f, 0.5f);
+            Param.Arg amountArg = Param.AMOUNT.with(wager.getAmount());
+            loser.showTitle(messages.title(loser, Message.LOST_TITLE, Message.LOST_SUBTITLE, RESULT_TIMES, amountArg));
+            messages.send(loser, Message.LOST_SUMMARY,
+                    Param.OPPONENT.with(winner != null ? winner.getName() : "Unknown"), amountArg);
+            loser.playSound(LOSE_SOUND);
+        }
+
+        // Spectators all get the same result in one pass
+        MatchAudience audience = plugin.getSpectatorManager().get(wagerId);
+        if (audience != null && audience.getSpectatorCount() > 0) {
+            audience.showTitle(MatchAudience.Scope.SPECTATORS, messages, Message.SPECTATOR_RESULT_TITLE, Message.SPECTATOR_RESULT_SUBTITLE,
+                    RESULT_TIMES, Param.WINNER.with(nameOf(winnerId, winner)), Param.LOSER.with(nameOf(loserId, loser)),
+                    Param.POT.with(totalPot));
+            audience.playSound(MatchAudience.Scope.SPECTATORS, WIN_SOUND);
         }
 
         // Delayed cleanup - send players back to lobby
-        SchedulerUtil.runTaskLater(plugin, () -> endWager(wager), 60L); // 3 second delay
+        plugin.getMatchClock().runLater(() -> endWager(wager), 60L); // 3 second delay
     }
 
     /**
@@ -253,12 +480,10 @@ public class WagerManager {
      */
     private void endWager(Wager wager) {
         // Free arena
-        if (wager.getArenaId() != null) {
-            Arena arena = plugin.getArenaManager().getArena(wager.getArenaId());
-            if (arena != null) {
-                arena.setInUse(false);
-            }
-        }
+        releaseArena(wager, true);
+        plugin.getSpectatorManager().close(wager.getId());
+        plugin.getWagerExpiry().cancel(wager.getId());
+        journalState(wager);
 
         // Restore and teleport players
         Player creator = Bukkit.getPlayer(wager.getCreator());
@@ -286,18 +511,28 @@ public class WagerManager {
      */
     public void cancelWager(UUID wagerId, String reason) {
         Wager wager = activeWagers.get(wagerId);
-        if (wager == null) return;
+        if (wager == null || wager.finish() == null) return;
+        cleanupCancelled(wager, reason);
+    }
+
+    /**
+     * Refund and clean up a wager this thread has just moved to FINISHED
+     */
+    private void cleanupCancelled(Wager wager, String reason) {
+        UUID wagerId = wager.getId();
 
         // Check if players were actually sent to an arena (past WAITING state)
         boolean wasInArena = wager.getArenaId() != null;
+        waitingIndex.remove(wager);
 
-        wager.setState(Wager.WagerState.FINISHED);
+        // Refund every stake held in escrow
+        plugin.getEscrowManager().refund(wager);
 
-        // Refund both players
+        Param.Arg reasonArg = Param.REASON.with(reason);
+        Param.Arg amountArg = Param.AMOUNT.with(wager.getAmount());
         Player creator = Bukkit.getPlayer(wager.getCreator());
         if (creator != null) {
-            plugin.getEconomyManager().deposit(creator, wager.getAmount());
-            creator.sendMessage(ChatColor.RED + "Wager cancelled: " + reason + ChatColor.GRAY + " (" + FormatUtil.formatMoney(wager.getAmount()) + " refunded)");
+            plugin.getMessages().send(creator, Message.CANCELLED, reasonArg, amountArg);
             if (wasInArena) {
                 restorePlayerState(creator);
                 teleportToLobby(creator);
@@ -307,8 +542,7 @@ public class WagerManager {
         if (wager.getOpponent() != null) {
             Player opponent = Bukkit.getPlayer(wager.getOpponent());
             if (opponent != null) {
-                plugin.getEconomyManager().deposit(opponent, wager.getAmount());
-                opponent.sendMessage(ChatColor.RED + "Wager cancelled: " + reason + ChatColor.GRAY + " (" + FormatUtil.formatMoney(wager.getAmount()) + " refunded)");
+                plugin.getMessages().send(opponent, Message.CANCELLED, reasonArg, amountArg);
                 if (wasInArena) {
                     restorePlayerState(opponent);
                     teleportToLobby(opponent);
@@ -317,10 +551,11 @@ public class WagerManager {
         }
 
         // Free arena
-        if (wasInArena) {
-            Arena arena = plugin.getArenaManager().getArena(wager.getArenaId());
-            if (arena != null) arena.setInUse(false);
-        }
+        releaseArena(wager);
+        plugin.getSpectatorManager().close(wagerId);
+        plugin.getWagerExpiry().cancel(wagerId);
+        journalState(wager);
+        plugin.getEventBus().publish(new WagerCancelEvent(wager, reason));
 
         activeWagers.remove(wagerId);
         playerWagerMap.remove(wager.getCreator());
@@ -329,6 +564,23 @@ public class WagerManager {
         }
     }
 
+    /**
+     * Called by {@link WagerExpiry} when a deadline passes. Does nothing if the wager has
+     * moved on since (e.g. a listing that was accepted in the meantime).
+     */
+    public void expireWager(UUID wagerId, WagerExpiry.Kind kind) {
+        Wager wager = activeWagers.get(wagerId);
+        if (wager == null) return;
+
+        if (kind == WagerExpiry.Kind.LISTING) {
+            if (wager.transition(Wager.WagerState.WAITING, Wager.WagerState.FINISHED)) {
+                cleanupCancelled(wager, "No opponent joined in time");
+            }
+        } else if (wager.transition(Wager.WagerState.IN_PROGRESS, Wager.WagerState.FINISHED)) {
+            cleanupCancelled(wager, "The match ran past the time limit");
+        }
+    }
+
     /**
      * Player leaves wager voluntarily (counts as loss if in progress)
      */
@@ -339,13 +591,20 @@ public class WagerManager {
         Wager wager = activeWagers.get(wagerId);
         if (wager == null) return false;
 
-        if (wager.getState() == Wager.WagerState.WAITING) {
+        if (wager.transition(Wager.WagerState.WAITING, Wager.WagerState.FINISHED)) {
             // Just cancel and refund creator
-            cancelWager(wagerId, "Creator left the queue");
+            cleanupCancelled(wager, "Creator left the queue");
+            return true;
+        }
+
+        // Waiting for an arena: nothing has started yet, so refund both
+        if (isWaitingForArena(wagerId) && wager.transition(Wager.WagerState.ACCEPTED, Wager.WagerState.FINISHED)) {
+            cleanupCancelled(wager, player.getName() + " left the arena queue");
             return true;
         }
 
-        if (wager.getState() == Wager.WagerState.IN_PROGRESS || wager.getState() == Wager.WagerState.COUNTDOWN) {
+        Wager.WagerState state = wager.getState();
+        if (state == Wager.WagerState.IN_PROGRESS || state == Wager.WagerState.COUNTDOWN) {
             // Player forfeits - other player wins
             handleDeath(player);
             return true;
@@ -362,21 +621,40 @@ public class WagerManager {
         if (wagerId == null) return false;
 
         Wager wager = activeWagers.get(wagerId);
-        if (wager == null || wager.getState() != Wager.WagerState.WAITING) return false;
+        if (wager == null || !wager.transition(Wager.WagerState.WAITING, Wager.WagerState.FINISHED)) return false;
 
-        cancelWager(wagerId, "Cancelled by creator");
+        cleanupCancelled(wager, "Cancelled by creator");
         return true;
     }
 
+    private void releaseArena(Wager wager) {
+        releaseArena(wager, false);
+    }
+
+    /**
+     * @param hostedMatch true once the match has been fought to a result, so the
+     *                    pool can learn how long matches take
+     */
+    private void releaseArena(Wager wager, boolean hostedMatch) {
+        ArenaPool.Waiter waiter = arenaWaiters.remove(wager.getId());
+        if (waiter != null) waiter.cancel();
+        ArenaLease lease = arenaLeases.remove(wager.getId());
+        if (lease != null) lease.release(hostedMatch);
+    }
+
+    private void journalState(Wager wager) {
+        plugin.getWagerJournal().recordState(wager.getId(), wager.getState(),
+                wager.getCreator(), wager.getOpponent(), wager.getAmount());
+    }
+
     private void savePlayerState(Player player) {
-        savedInventories.put(player.getUniqueId(), player.getInventory().getContents().clone());
-        savedArmor.put(player.getUniqueId(), player.getInventory().getArmorContents().clone());
-        savedLocations.put(player.getUniqueId(), player.getLocation().clone());
+        PlayerSnapshot snapshot = PlayerSnapshot.capture(player, plugin.getSettings().isCompressPlayerSnapshots());
+        savedStates.put(player.getUniqueId(), snapshot);
+        plugin.getWagerJournal().recordSnapshot(player.getUniqueId(), snapshot.toBytes());
     }
 
-    private void preparePlayer(Player player) {
-        player.getInventory().clear();
-        player.getInventory().setArmorContents(null);
+    private void preparePlayer(Player player, Kit kit) {
+        kit.apply(player);
         player.setHealth(20.0);
         player.setFoodLevel(20);
         player.setSaturation(20f);
@@ -385,25 +663,15 @@ public class WagerManager {
         for (PotionEffect effect : player.getActivePotionEffects()) {
             player.removePotionEffect(effect.getType());
         }
-
-        // Give basic kit
-        player.getInventory().addItem(new ItemStack(org.bukkit.Material.DIAMOND_SWORD));
-        player.getInventory().addItem(new ItemStack(org.bukkit.Material.BOW));
-        player.getInventory().addItem(new ItemStack(org.bukkit.Material.ARROW, 16));
-        player.getInventory().addItem(new ItemStack(org.bukkit.Material.GOLDEN_APPLE, 3));
-        player.getInventory().setHelmet(new ItemStack(org.bukkit.Material.DIAMOND_HELMET));
-        player.getInventory().setChestplate(new ItemStack(org.bukkit.Material.DIAMOND_CHESTPLATE));
-        player.getInventory().setLeggings(new ItemStack(org.bukkit.Material.DIAMOND_LEGGINGS));
-        player.getInventory().setBoots(new ItemStack(org.bukkit.Material.DIAMOND_BOOTS));
     }
 
     private void restorePlayerState(Player player) {
-        ItemStack[] inv = savedInventories.remove(player.getUniqueId());
-        ItemStack[] armor = savedArmor.remove(player.getUniqueId());
+        PlayerSnapshot snapshot = savedStates.remove(player.getUniqueId());
+        if (snapshot == null) return; // never made it into the arena
 
         player.getInventory().clear();
-        if (inv != null) player.getInventory().setContents(inv);
-        if (armor != null) player.getInventory().setArmorContents(armor);
+        snapshot.restoreInventory(player);
+        plugin.getWagerJournal().recordRestored(player.getUniqueId());
         player.setHealth(20.0);
         player.setFoodLevel(20);
         player.setWalkSpeed(0.2f);
@@ -420,9 +688,98 @@ public class WagerManager {
         }
     }
 
-    public void cancelAllWagers() {
-        for (UUID wagerId : new ArrayList<>(activeWagers.keySet())) {
-            cancelWager(wagerId, "Server shutting down");
+    /**
+     * Give a joining player back the inventory they had before a match they never
+     * returned from (they left mid-match, or the server went down during it)
+     */
+    public void handleJoin(Player player) {
+        if (isInWager(player.getUniqueId()) || !savedStates.containsKey(player.getUniqueId())) return;
+        restorePlayerState(player);
+        teleportToLobby(player);
+        player.sendMessage(ChatColor.YELLOW + "Your inventory from before your last wager match has been restored.");
+    }
+
+    /**
+     * Take over inventories recovered from the journal, to be restored when their owners join
+     */
+    public void adoptSnapshots(Collection<PlayerSnapshot> snapshots) {
+        for (PlayerSnapshot snapshot : snapshots) {
+            savedStates.putIfAbsent(snapshot.playerId(), snapshot);
+        }
+    }
+
+    /**
+     * Cancel every live wager for shutdown in one pass.
+     *
+     * Stake withdrawals still in flight are awaited first (within the budget), so that they
+     * land in escrow while the journal and settlement queue are still open. All stakes are
+     * then refunded through the settlement queue, which persists and applies them as a
+     * single batch when it shuts down. Fighters get their inventories back until
+     * {@code restoreBudgetMillis} runs out; anyone left over (or everyone on Folia, where
+     * regions no longer run tasks at this point) keeps their snapshot in the wager journal
+     * and is restored when they next join.
+     */
+    public void cancelAllWagers(long restoreBudgetMillis) {
+        long start = System.nanoTime();
+        long deadline = start + restoreBudgetMillis * 1_000_000L;
+
+        // A withdrawal finishing after the settlement queue shuts down would take the stake for good
+        List<EscrowManager.PendingHold> unfinished = plugin.getEscrowManager().awaitHolds(deadline);
+        for (EscrowManager.PendingHold hold : unfinished) {
+            plugin.getLogger().severe("Stake withdrawal of " + FormatUtil.formatMoney(hold.amount()) + " from " + hold.playerId()
+                    + " for wager " + hold.wagerId() + " did not finish before shutdown; refund it by hand if it was taken");
+        }
+
+        List<Wager> cancelled = new ArrayList<>();
+        for (Wager wager : activeWagers.values()) {
+            if (wager.finish() != null) cancelled.add(wager);
+        }
+
+        int refunded = 0;
+        Set<UUID> notified = new HashSet<>();
+        for (Wager wager : cancelled) {
+            waitingIndex.remove(wager);
+            Map<UUID, Double> refunds = plugin.getEscrowManager().refund(wager);
+            if (refunds != null) refunded += refunds.size();
+            releaseArena(wager);
+            plugin.getWagerExpiry().cancel(wager.getId());
+            journalState(wager);
+            plugin.getEventBus().publish(new WagerCancelEvent(wager, "Server shutting down"));
+            notified.add(wager.getCreator());
+            if (wager.getOpponent() != null) notified.add(wager.getOpponent());
+        }
+        // Stakes of wagers that were still waiting on their creator's withdrawal
+        refunded += plugin.getEscrowManager().refundAll();
+        pendingTransactions.clear();
+
+        int restored = 0;
+        int deferred = 0;
+        Location lobby = plugin.getArenaManager().getLobbyLocation();
+        for (UUID playerId : new ArrayList<>(savedStates.keySet())) {
+            Player player = Bukkit.getPlayer(playerId);
+            if (player == null || SchedulerUtil.isFolia() || System.nanoTime() > deadline) {
+                deferred++;
+                continue;
+            }
+            restorePlayerState(player);
+            if (lobby != null) player.teleport(lobby);
+            restored++;
+        }
+
+        for (UUID playerId : notified) {
+            Player player = Bukkit.getPlayer(playerId);
+            if (player != null) {
+                player.sendMessage(ChatColor.RED + "Wager cancelled: Server shutting down" + ChatColor.GRAY + " (stake refunded)");
+            }
+        }
+
+        activeWagers.clear();
+        playerWagerMap.clear();
+
+        if (!cancelled.isEmpty() || deferred > 0) {
+            plugin.getLogger().info("Cancelled " + cancelled.size() + " wagers in " + (System.nanoTime() - start) / 1_000_000 + "ms: "
+                    + refunded + " stakes refunded, " + restored + " inventories restored, "
+                    + deferred + " inventories kept for restore on next join");
         }
     }
 
@@ -430,24 +787,49 @@ public class WagerManager {
         return playerWagerMap.containsKey(playerId);
     }
 
+    /**
+     * In a wager, or with a stake withdrawal still in flight
+     */
+    public boolean isBusy(UUID playerId) {
+        return isInWager(playerId) || pendingTransactions.contains(playerId);
+    }
+
     public Wager getPlayerWager(UUID playerId) {
         UUID wagerId = playerWagerMap.get(playerId);
         if (wagerId == null) return null;
         return activeWagers.get(wagerId);
     }
 
+    /**
+     * Waiting wagers, newest first. The list is immutable and shared; don't modify it.
+     */
     public List<Wager> getWaitingWagers() {
-        List<Wager> waiting = new ArrayList<>();
-        for (Wager wager : activeWagers.values()) {
-            if (wager.getState() == Wager.WagerState.WAITING) {
-                waiting.add(wager);
-            }
-        }
-        waiting.sort((a, b) -> Long.compare(b.getCreatedAt(), a.getCreatedAt()));
-        return waiting;
+        return waitingIndex.snapshot().wagers();
+    }
+
+    /**
+     * Versioned snapshot of the waiting wagers, newest first
+     */
+    public WaitingWagerIndex.Snapshot getWaitingSnapshot() {
+        return waitingIndex.snapshot();
     }
 
     public Collection<Wager> getAllActiveWagers() {
         return Collections.unmodifiableCollection(activeWagers.values());
     }
+
+    private static Sound sound(String key, float pitch) {
+        return Sound.sound(Key.key(key), Sound.Source.MASTER, 1f, pitch);
+    }
+
+    private String nameOf(UUID playerId, Player online) {
+        if (online != null) return online.getName();
+        String name = Bukkit.getOfflinePlayer(playerId).getName();
+        return name != null ? name : "Unknown";
+    }
+
+    private static Title.Times times(int fadeInTicks, int stayTicks, int fadeOutTicks) {
+        return Title.Times.times(Duration.ofMillis(fadeInTicks * 50L), Duration.ofMillis(stayTicks * 50L),
+                Duration.ofMillis(fadeOutTicks * 50L));
+    }
 }
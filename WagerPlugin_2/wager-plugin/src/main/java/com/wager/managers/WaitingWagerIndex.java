@@ -0,0 +1,72 @@
+package com.wager.managers;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * WAITING wagers ordered newest first, kept up to date as wagers enter and leave WAITING.
+ *
+ * Readers get an immutable {@link Snapshot} tagged with a version number. The snapshot is
+ * only rebuilt after the index changes, so opening or refreshing the menu is a volatile
+ * read in the common case instead of a scan and sort of every active wager.
+ */
+public class WaitingWagerIndex {
+
+    /**
+     * Immutable view of the waiting wagers at one version of the index
+     */
+    public record Snapshot(long version, List<Wager> wagers) {
+        public Wager get(int index) {
+            return index >= 0 && index < wagers.size() ? wagers.get(index) : null;
+        }
+    }
+
+    private record Key(long createdAt, UUID wagerId) {}
+
+    private static final Comparator<Key> NEWEST_FIRST = Comparator
+            .comparingLong(Key::createdAt).reversed()
+            .thenComparing(Key::wagerId);
+
+    private final ConcurrentSkipListMap<Key, Wager> waiting = new ConcurrentSkipListMap<>(NEWEST_FIRST);
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot snapshot = new Snapshot(0, List.of());
+
+    public void add(Wager wager) {
+        if (waiting.put(key(wager), wager) == null) {
+            version.incrementAndGet();
+        }
+    }
+
+    public void remove(Wager wager) {
+        if (waiting.remove(key(wager)) != null) {
+            version.incrementAndGet();
+        }
+    }
+
+    /**
+     * Current waiting wagers, newest first
+     */
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        long latest = version.get();
+        if (current.version() == latest) return current;
+
+        // Read the version before copying so a concurrent change forces another rebuild
+        Snapshot rebuilt = new Snapshot(latest, List.copyOf(waiting.values()));
+        if (rebuilt.version() > snapshot.version()) {
+            snapshot = rebuilt;
+        }
+        return rebuilt;
+    }
+
+    public int size() {
+        return waiting.size();
+    }
+
+    private static Key key(Wager wager) {
+        return new Key(wager.getCreatedAt(), wager.getId());
+    }
+}
@@ -0,0 +1,53 @@
+package com.wager.storage;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Backing store for the built-in economy. Implementations keep balances in memory
+ * so reads and mutations never touch disk on the calling thread; {@link #flush()}
+ * persists whatever changed since the last flush.
+ */
+public interface BalanceStore {
+
+    /**
+     * Load persisted balances. Called once before any other method.
+     */
+    void load() throws IOException;
+
+    /**
+     * Get a balance, opening the account with {@code startingBalance} if it doesn't exist yet.
+     */
+    double getBalance(UUID account, double startingBalance);
+
+    /**
+     * Atomically add {@code delta} (negative to withdraw) and return the new balance.
+     * {@code wagerId} identifies the wager that caused the change, or null.
+     */
+    double adjust(UUID account, double delta, UUID wagerId, double startingBalance);
+
+    /**
+     * Deposit a settlement at most once. The settlement id is persisted in the same write as
+     * the balance change, so a settlement re-applied after a crash is recognised and skipped.
+     * Returns false, changing nothing, if the settlement was already applied.
+     */
+    boolean deposit(UUID account, double amount, UUID settlementId, double startingBalance);
+
+    /**
+     * Forget every applied settlement id not in {@code settlementIds}. Only ids the caller
+     * can never apply again may be left out.
+     */
+    void retainSettlements(Collection<UUID> settlementIds);
+
+    /**
+     * Persist changed balances. Safe to call from any thread. Returns true once every change
+     * made before the call is on disk; false if the write failed and will be retried.
+     */
+    boolean flush();
+
+    /**
+     * Flush and release any resources. The store must not be used afterwards.
+     */
+    void close();
+}
@@ -0,0 +1,417 @@
+package com.wager.storage;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Balance store backed by an append-only binary journal of balance mutations.
+ *
+ * Every mutation is appended as a fixed-size, checksummed record. Records are
+ * buffered in memory and written + fsynced in batches by {@link #flush()}. Once the
+ * journal grows past the compaction threshold, the current balances are written to a
+ * snapshot and the journal is truncated. On startup the snapshot is loaded and every
+ * journal record newer than it is replayed; a torn record at the tail (from a crash
+ * mid-write) ends the replay and is cut off.
+ *
+ * Settlement deposits carry their settlement id in place of the wager id and set the top
+ * bit of the sequence number. Replay collects those ids and snapshots keep the ones still
+ * remembered, so a deposit re-applied after a crash is recognised.
+ */
+public class JournalBalanceStore implements BalanceStore {
+
+    private static final int SNAPSHOT_MAGIC = 0x57474253; // "WGBS"
+    private static final int SNAPSHOT_VERSION = 2; // 2 adds applied settlement ids
+
+    // seq, account (2 longs), delta, wager or settlement (2 longs), timestamp, crc
+    private static final int RECORD_SIZE = 8 + 16 + 8 + 16 + 8 + 4;
+    private static final int RECORD_BODY = RECORD_SIZE - 4;
+    private static final long SETTLEMENT_FLAG = Long.MIN_VALUE;
+
+    // reference is the wager id, or the settlement id when settlement is set
+    private record Mutation(long seq, UUID account, double delta, UUID reference, long timestamp, boolean settlement) {}
+
+    private final File snapshotFile;
+    private final File journalFile;
+    private final File legacyFile;
+    private final Logger logger;
+    private final int compactThreshold;
+
+    private final Map<UUID, Double> balances = new ConcurrentHashMap<>();
+    private final Set<UUID> settled = new HashSet<>(); // guarded by lock
+
+    // Guards balances + settled + pending + nextSeq so a snapshot always matches a journal position
+    private final Object lock = new Object();
+    private List<Mutation> pending = new ArrayList<>();
+    private long nextSeq = 1;
+
+    // Guards the journal channel; only held by the flushing thread
+    private final Object ioLock = new Object();
+    private FileChannel journal;
+    private long journalRecords = 0;
+
+    public JournalBalanceStore(File dataFolder, Logger logger, int compactThreshold) {
+        this.snapshotFile = new File(dataFolder, "economy.snapshot");
+        this.journalFile = new File(dataFolder, "economy.journal");
+        this.legacyFile = new File(dataFolder, "economy.yml");
+        this.logger = logger;
+        this.compactThreshold = Math.max(1, compactThreshold);
+    }
+
+    @Override
+    public void load() throws IOException {
+        long snapshotSeq = 0;
+        boolean imported = false;
+        if (snapshotFile.exists()) {
+            try {
+                snapshotSeq = readSnapshot();
+            } catch (IOException e) {
+                // The journal only holds changes since the snapshot, so replaying it alone would
+                // reset every other balance. Touch nothing and let an admin restore the snapshot.
+                balances.clear();
+                settled.clear();
+                throw new IOException(snapshotFile.getName() + " is unreadable; refusing to load balances."
+                        + " Restore it from a backup (" + journalFile.getName() + " has been left as is)", e);
+            }
+        } else if (!journalFile.exists() && legacyFile.exists()) {
+            importLegacy();
+            imported = true;
+        }
+        nextSeq = snapshotSeq + 1;
+
+        journal = FileChannel.open(journalFile.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        int replayed = replayJournal(snapshotSeq);
+        journal.position(journal.size());
+
+        logger.info("Loaded " + balances.size() + " balances (" + replayed + " journal entries replayed)");
+
+        // Migrated balances are only durable once they're in a snapshot
+        if (imported) {
+            compact();
+        }
+    }
+
+    @Override
+    public double getBalance(UUID account, double startingBalance) {
+        Double balance = balances.get(account);
+        if (balance != null) return balance;
+
+        synchronized (lock) {
+            balance = balances.get(account);
+            if (balance != null) return balance;
+            balances.put(account, startingBalance);
+            append(account, startingBalance, null, false);
+            return startingBalance;
+        }
+    }
+
+    @Override
+    public double adjust(UUID account, double delta, UUID wagerId, double startingBalance) {
+        synchronized (lock) {
+            return apply(account, delta, wagerId, false, startingBalance);
+        }
+    }
+
+    @Override
+    public boolean deposit(UUID account, double amount, UUID settlementId, double startingBalance) {
+        synchronized (lock) {
+            if (!settled.add(settlementId)) return false;
+            apply(account, amount, settlementId, true, startingBalance);
+            return true;
+        }
+    }
+
+    @Override
+    public void retainSettlements(Collection<UUID> settlementIds) {
+        synchronized (lock) {
+            settled.retainAll(settlementIds);
+        }
+    }
+
+    private double apply(UUID account, double delta, UUID reference, boolean settlement, double startingBalance) {
+        Double old = balances.get(account);
+        if (old == null) {
+            // Open the account first so replay reproduces the starting balance
+            append(account, startingBalance, null, false);
+            old = startingBalance;
+        }
+        double balance = old + delta;
+        balances.put(account, balance);
+        append(account, delta, reference, settlement);
+        return balance;
+    }
+
+    private void append(UUID account, double delta, UUID reference, boolean settlement) {
+        pending.add(new Mutation(nextSeq++, account, delta, reference, System.currentTimeMillis(), settlement));
+    }
+
+    @Override
+    public boolean flush() {
+        synchronized (ioLock) {
+            if (journal == null) return false;
+
+            List<Mutation> batch;
+            synchronized (lock) {
+                if (pending.isEmpty()) return true;
+                batch = pending;
+                pending = new ArrayList<>();
+            }
+
+            try {
+                writeBatch(batch);
+            } catch (IOException e) {
+                logger.log(Level.SEVERE, "Failed to append to " + journalFile.getName(), e);
+                // Put the batch back in front so nothing is lost or reordered
+                synchronized (lock) {
+                    batch.addAll(pending);
+                    pending = batch;
+                }
+                return false;
+            }
+
+            if (journalRecords >= compactThreshold) {
+                compact();
+            }
+            return true;
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (ioLock) {
+            flush();
+            if (journal == null) return;
+            if (journalRecords > 0) {
+                compact();
+            }
+            try {
+                journal.close();
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Failed to close " + journalFile.getName(), e);
+            }
+            journal = null;
+        }
+    }
+
+    // --- Journal ---
+
+    private void writeBatch(List<Mutation> batch) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(batch.size() * RECORD_SIZE);
+        CRC32 crc = new CRC32();
+        for (Mutation m : batch) {
+            int start = buffer.position();
+            buffer.putLong(m.settlement() ? m.seq() | SETTLEMENT_FLAG : m.seq());
+            buffer.putLong(m.account().getMostSignificantBits());
+            buffer.putLong(m.account().getLeastSignificantBits());
+            buffer.putDouble(m.delta());
+            buffer.putLong(m.reference() != null ? m.reference().getMostSignificantBits() : 0L);
+            buffer.putLong(m.reference() != null ? m.reference().getLeastSignificantBits() : 0L);
+            buffer.putLong(m.timestamp());
+            crc.reset();
+            crc.update(buffer.array(), start, RECORD_BODY);
+            buffer.putInt((int) crc.getValue());
+        }
+        buffer.flip();
+
+        long start = journal.position();
+        try {
+            while (buffer.hasRemaining()) {
+                journal.write(buffer);
+            }
+            journal.force(false);
+        } catch (IOException e) {
+            // Don't leave a torn record in front of the retry
+            journal.truncate(start);
+            journal.position(start);
+            throw e;
+        }
+        journalRecords += batch.size();
+    }
+
+    private int replayJournal(long snapshotSeq) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        CRC32 crc = new CRC32();
+        long position = 0;
+        int replayed = 0;
+
+        journal.position(0);
+        while (true) {
+            record.clear();
+            while (record.hasRemaining()) {
+                if (journal.read(record) < 0) break;
+            }
+            if (record.position() < RECORD_SIZE) break;
+
+            crc.reset();
+            crc.update(record.array(), 0, RECORD_BODY);
+            record.flip();
+            long seq = record.getLong();
+            boolean settlement = (seq & SETTLEMENT_FLAG) != 0;
+            seq &= ~SETTLEMENT_FLAG;
+            UUID account = new UUID(record.getLong(), record.getLong());
+            double delta = record.getDouble();
+            UUID reference = new UUID(record.getLong(), record.getLong());
+            record.position(RECORD_BODY);
+            if (record.getInt() != (int) crc.getValue()) break;
+
+            position += RECORD_SIZE;
+            journalRecords++;
+            // Already in the snapshot, or a duplicate from a retried write
+            if (seq < nextSeq) continue;
+
+            balances.merge(account, delta, Double::sum);
+            if (settlement) settled.add(reference);
+            nextSeq = Math.max(nextSeq, seq + 1);
+            replayed++;
+        }
+
+        if (position < journal.size()) {
+            logger.warning("Discarding " + (journal.size() - position) + " bytes of incomplete journal data");
+            journal.truncate(position);
+            journal.force(false);
+        }
+        return replayed;
+    }
+
+    // --- Snapshots ---
+
+    /**
+     * Write current balances to a new snapshot and empty the journal.
+     * Must be called with ioLock held (or before the store is in use).
+     */
+    private void compact() {
+        Map<UUID, Double> copy;
+        List<UUID> settledCopy;
+        long seq;
+        List<Mutation> unwritten;
+        synchronized (lock) {
+            copy = new HashMap<>(balances);
+            settledCopy = new ArrayList<>(settled);
+            seq = nextSeq - 1;
+            unwritten = pending;
+            pending = new ArrayList<>();
+        }
+
+        boolean written = false;
+        try {
+            // Anything still buffered must hit the journal before it can be truncated
+            if (!unwritten.isEmpty()) writeBatch(unwritten);
+            written = true;
+            writeSnapshot(copy, settledCopy, seq);
+            journal.truncate(0);
+            journal.position(0);
+            journal.force(false);
+            journalRecords = 0;
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Failed to compact economy journal", e);
+            // Unless they reached the journal, put them back in front like flush() does
+            if (!written) {
+                synchronized (lock) {
+                    unwritten.addAll(pending);
+                    pending = unwritten;
+                }
+            }
+        }
+    }
+
+    private void writeSnapshot(Map<UUID, Double> copy, List<UUID> settledCopy, long seq) throws IOException {
+        File tmp = new File(snapshotFile.getPath() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (FileOutputStream fileOut = new FileOutputStream(tmp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(fileOut, crc)))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeLong(seq);
+            out.writeInt(copy.size());
+            for (Map.Entry<UUID, Double> entry : copy.entrySet()) {
+                out.writeLong(entry.getKey().getMostSignificantBits());
+                out.writeLong(entry.getKey().getLeastSignificantBits());
+                out.writeDouble(entry.getValue());
+            }
+            out.writeInt(settledCopy.size());
+            for (UUID settlementId : settledCopy) {
+                out.writeLong(settlementId.getMostSignificantBits());
+                out.writeLong(settlementId.getLeastSignificantBits());
+            }
+            out.flush();
+            // Checksum covers everything written before it
+            new DataOutputStream(fileOut).writeInt((int) crc.getValue());
+            fileOut.getFD().sync();
+        }
+        Files.move(tmp.toPath(), snapshotFile.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private long readSnapshot() throws IOException {
+        CRC32 crc = new CRC32();
+        try (FileInputStream fileIn = new FileInputStream(snapshotFile);
+             CheckedInputStream checked = new CheckedInputStream(new BufferedInputStream(fileIn), crc);
+             DataInputStream in = new DataInputStream(checked)) {
+            int version = in.readInt() == SNAPSHOT_MAGIC ? in.readInt() : -1;
+            if (version != 1 && version != SNAPSHOT_VERSION) {
+                throw new IOException(snapshotFile.getName() + " is not a valid balance snapshot");
+            }
+            long seq = in.readLong();
+            int count = in.readInt();
+            Map<UUID, Double> loaded = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                loaded.put(new UUID(in.readLong(), in.readLong()), in.readDouble());
+            }
+            List<UUID> loadedSettled = new ArrayList<>();
+            int settledCount = version >= 2 ? in.readInt() : 0;
+            for (int i = 0; i < settledCount; i++) {
+                loadedSettled.add(new UUID(in.readLong(), in.readLong()));
+            }
+            int expected = (int) crc.getValue();
+            if (new DataInputStream(checked).readInt() != expected) {
+                throw new IOException(snapshotFile.getName() + " failed its checksum");
+            }
+            balances.putAll(loaded);
+            settled.addAll(loadedSettled);
+            return seq;
+        } catch (EOFException e) {
+            throw new IOException(snapshotFile.getName() + " is truncated", e);
+        }
+    }
+
+    private void importLegacy() {
+        YamlConfiguration legacy = YamlConfiguration.loadConfiguration(legacyFile);
+        for (String key : legacy.getKeys(false)) {
+            if (key.equals(YamlBalanceStore.SETTLED_KEY)) continue;
+            try {
+                balances.put(UUID.fromString(key), legacy.getDouble(key));
+            } catch (IllegalArgumentException e) {
+                logger.warning("Skipping invalid economy entry: " + key);
+            }
+        }
+        logger.info("Imported " + balances.size() + " balances from " + legacyFile.getName());
+    }
+}
@@ -0,0 +1,327 @@
+package com.wager.storage;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Balance store that keeps every account in a memory-mapped file of fixed-size records.
+ *
+ * The file is an open-addressing hash table: a small header followed by {@code capacity}
+ * slots of (uuid most bits, uuid least bits, balance in minor units). Lookups probe
+ * linearly from the UUID's hash and updates overwrite the balance in place, so there is
+ * nothing to parse on startup and nothing to rewrite on flush beyond the dirty pages.
+ * The table is rebuilt into a new file at twice the size when it gets too full.
+ *
+ * Applied settlement ids live in the same table as slots whose balance is {@link #SETTLED},
+ * written alongside the deposit they belong to.
+ */
+public class MappedBalanceStore implements BalanceStore {
+
+    private static final int MAGIC = 0x57474D42; // "WGMB"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int RECORD_SIZE = 8 + 8 + 8;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final double MAX_LOAD = 0.7;
+
+    // Balances are stored as whole cents
+    private static final double SCALE = 100.0;
+    // Balance of a slot that records an applied settlement rather than an account
+    private static final long SETTLED = Long.MIN_VALUE;
+
+    // Header offsets
+    private static final int OFF_MAGIC = 0;
+    private static final int OFF_VERSION = 4;
+    private static final int OFF_CAPACITY = 8;
+    private static final int OFF_COUNT = 12;
+
+    private final File file;
+    private final File legacyFile;
+    private final Logger logger;
+
+    private MappedByteBuffer table;
+    private int capacity;
+    private int count;
+    private boolean dirty = false;
+    private final Set<UUID> settled = new HashSet<>();
+
+    public MappedBalanceStore(File dataFolder, Logger logger) {
+        this.file = new File(dataFolder, "economy.dat");
+        this.legacyFile = new File(dataFolder, "economy.yml");
+        this.logger = logger;
+    }
+
+    @Override
+    public synchronized void load() throws IOException {
+        if (file.exists()) {
+            table = map(file, -1);
+            if (table.getInt(OFF_MAGIC) != MAGIC || table.getInt(OFF_VERSION) != VERSION) {
+                throw new IOException(file.getName() + " is not a valid balance table");
+            }
+            capacity = table.getInt(OFF_CAPACITY);
+            count = table.getInt(OFF_COUNT);
+            if (Integer.bitCount(capacity) != 1 || table.capacity() < fileSize(capacity)) {
+                throw new IOException(file.getName() + " has a corrupt header");
+            }
+            for (int slot = 0; slot < capacity; slot++) {
+                int position = offset(slot);
+                if (table.getLong(position + 16) == SETTLED) {
+                    settled.add(new UUID(table.getLong(position), table.getLong(position + 8)));
+                }
+            }
+            logger.info("Mapped " + (count - settled.size()) + " balances from " + file.getName());
+            return;
+        }
+
+        table = create(file, INITIAL_CAPACITY);
+        capacity = INITIAL_CAPACITY;
+        count = 0;
+        if (legacyFile.exists()) {
+            importLegacy();
+        }
+        table.force();
+    }
+
+    @Override
+    public synchronized double getBalance(UUID account, double startingBalance) {
+        int slot = find(account);
+        if (slot >= 0) {
+            return table.getLong(offset(slot) + 16) / SCALE;
+        }
+        insert(account, toMinor(startingBalance));
+        return startingBalance;
+    }
+
+    @Override
+    public synchronized double adjust(UUID account, double delta, UUID wagerId, double startingBalance) {
+        int slot = find(account);
+        if (slot < 0) {
+            long balance = toMinor(startingBalance) + toMinor(delta);
+            insert(account, balance);
+            return balance / SCALE;
+        }
+        int position = offset(slot) + 16;
+        long balance = table.getLong(position) + toMinor(delta);
+        table.putLong(position, balance);
+        dirty = true;
+        return balance / SCALE;
+    }
+
+    @Override
+    public synchronized boolean deposit(UUID account, double amount, UUID settlementId, double startingBalance) {
+        if (find(settlementId) >= 0) return false;
+        // Room for the marker and a new account up front, so neither is written without the other
+        ensureRoom(2, account);
+        adjust(account, amount, null, startingBalance);
+        insert(settlementId, SETTLED);
+        settled.add(settlementId);
+        return true;
+    }
+
+    @Override
+    public synchronized void retainSettlements(Collection<UUID> settlementIds) {
+        for (Iterator<UUID> it = settled.iterator(); it.hasNext(); ) {
+            UUID settlementId = it.next();
+            if (settlementIds.contains(settlementId)) continue;
+            int slot = find(settlementId);
+            if (slot >= 0) delete(slot);
+            it.remove();
+        }
+    }
+
+    @Override
+    public synchronized boolean flush() {
+        if (table == null) return false;
+        if (!dirty) return true;
+        try {
+            table.force();
+        } catch (UncheckedIOException e) {
+            logger.log(Level.SEVERE, "Failed to sync " + file.getName(), e);
+            return false;
+        }
+        dirty = false;
+        return true;
+    }
+
+    @Override
+    public synchronized void close() {
+        flush();
+        table = null;
+    }
+
+    // --- Hash table ---
+
+    private int find(UUID account) {
+        long msb = account.getMostSignificantBits();
+        long lsb = account.getLeastSignificantBits();
+        int mask = capacity - 1;
+        for (int slot = hash(msb, lsb) & mask; ; slot = (slot + 1) & mask) {
+            int position = offset(slot);
+            long slotMsb = table.getLong(position);
+            long slotLsb = table.getLong(position + 8);
+            if (slotMsb == 0 && slotLsb == 0) return -1;
+            if (slotMsb == msb && slotLsb == lsb) return slot;
+        }
+    }
+
+    private void insert(UUID account, long minorUnits) {
+        ensureRoom(1, account);
+        put(table, capacity, account.getMostSignificantBits(), account.getLeastSignificantBits(), minorUnits);
+        count++;
+        table.putInt(OFF_COUNT, count);
+        dirty = true;
+    }
+
+    private void ensureRoom(int slots, UUID account) {
+        if (count + slots > capacity * MAX_LOAD) {
+            grow();
+        }
+        // Probing stops at the first empty slot, so one must always be left
+        if (count + slots >= capacity) {
+            throw new IllegalStateException(file.getName() + " is full (" + count + " of " + capacity
+                    + " slots) and could not be grown; refusing to open " + account);
+        }
+    }
+
+    /**
+     * Empty a slot, shifting back later entries of its probe run so lookups still find them
+     */
+    private void delete(int slot) {
+        int mask = capacity - 1;
+        int hole = slot;
+        for (int next = (slot + 1) & mask; ; next = (next + 1) & mask) {
+            int position = offset(next);
+            long msb = table.getLong(position);
+            long lsb = table.getLong(position + 8);
+            if (msb == 0 && lsb == 0) break;
+            // Only entries whose home slot is at or before the hole may move into it
+            int home = hash(msb, lsb) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                int holePosition = offset(hole);
+                table.putLong(holePosition, msb);
+                table.putLong(holePosition + 8, lsb);
+                table.putLong(holePosition + 16, table.getLong(position + 16));
+                hole = next;
+            }
+        }
+        int holePosition = offset(hole);
+        table.putLong(holePosition, 0L);
+        table.putLong(holePosition + 8, 0L);
+        table.putLong(holePosition + 16, 0L);
+        count--;
+        table.putInt(OFF_COUNT, count);
+        dirty = true;
+    }
+
+    private static void put(MappedByteBuffer target, int capacity, long msb, long lsb, long minorUnits) {
+        int mask = capacity - 1;
+        int slot = hash(msb, lsb) & mask;
+        while (true) {
+            int position = offset(slot);
+            if (target.getLong(position) == 0 && target.getLong(position + 8) == 0) {
+                target.putLong(position, msb);
+                target.putLong(position + 8, lsb);
+                target.putLong(position + 16, minorUnits);
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Rehash into a file twice the size, then swap it in atomically
+     */
+    private void grow() {
+        int newCapacity = capacity * 2;
+        File tmp = new File(file.getPath() + ".tmp");
+        try {
+            MappedByteBuffer bigger = create(tmp, newCapacity);
+            for (int slot = 0; slot < capacity; slot++) {
+                int position = offset(slot);
+                long msb = table.getLong(position);
+                long lsb = table.getLong(position + 8);
+                if (msb == 0 && lsb == 0) continue;
+                put(bigger, newCapacity, msb, lsb, table.getLong(position + 16));
+            }
+            bigger.putInt(OFF_COUNT, count);
+            bigger.force();
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            table = bigger;
+            capacity = newCapacity;
+        } catch (IOException e) {
+            // The old table keeps working until it runs out of free slots; insert() refuses after that
+            logger.log(Level.SEVERE, "Failed to grow " + file.getName() + " to " + newCapacity + " slots", e);
+        }
+    }
+
+    private static int hash(long msb, long lsb) {
+        long h = msb ^ lsb;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    private static int offset(int slot) {
+        return HEADER_SIZE + slot * RECORD_SIZE;
+    }
+
+    private static long fileSize(int capacity) {
+        return HEADER_SIZE + (long) capacity * RECORD_SIZE;
+    }
+
+    private static long toMinor(double amount) {
+        return Math.round(amount * SCALE);
+    }
+
+    // --- Files ---
+
+    private static MappedByteBuffer create(File target, int capacity) throws IOException {
+        Files.deleteIfExists(target.toPath());
+        MappedByteBuffer buffer = map(target, fileSize(capacity));
+        buffer.putInt(OFF_MAGIC, MAGIC);
+        buffer.putInt(OFF_VERSION, VERSION);
+        buffer.putInt(OFF_CAPACITY, capacity);
+        buffer.putInt(OFF_COUNT, 0);
+        return buffer;
+    }
+
+    private static MappedByteBuffer map(File target, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(target.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size < 0 ? channel.size() : size);
+        }
+    }
+
+    private void importLegacy() {
+        YamlConfiguration legacy = YamlConfiguration.loadConfiguration(legacyFile);
+        for (String key : legacy.getKeys(false)) {
+            if (key.equals(YamlBalanceStore.SETTLED_KEY)) continue;
+            try {
+                UUID account = UUID.fromString(key);
+                if (find(account) < 0) {
+                    insert(account, toMinor(legacy.getDouble(key)));
+                }
+            } catch (IllegalArgumentException e) {
+                logger.warning("Skipping invalid economy entry: " + key);
+            }
+        }
+        logger.info("Imported " + count + " balances from " + legacyFile.getName());
+    }
+}
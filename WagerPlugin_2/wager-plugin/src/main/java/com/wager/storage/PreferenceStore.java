@@ -0,0 +1,72 @@
+package com.wager.storage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Per-player preference flags in {@code preferences.dat}: a count followed by one fixed
+ * 20 byte record (UUID, flags) per player. Only players with at least one flag set are
+ * stored, so the file stays tiny. Blocking; only call it off the main thread.
+ */
+public class PreferenceStore {
+
+    private final File file;
+    private final Logger logger;
+
+    public PreferenceStore(File dataFolder, Logger logger) {
+        this.file = new File(dataFolder, "preferences.dat");
+        this.logger = logger;
+    }
+
+    public Map<UUID, Integer> load() {
+        Map<UUID, Integer> flags = new HashMap<>();
+        if (!file.exists()) return flags;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                UUID playerId = new UUID(in.readLong(), in.readLong());
+                flags.put(playerId, in.readInt());
+            }
+        } catch (EOFException e) {
+            logger.warning(file.getName() + " is truncated; kept " + flags.size() + " players' preferences");
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Failed to load " + file.getName(), e);
+        }
+        return flags;
+    }
+
+    public boolean save(Map<UUID, Integer> flags) {
+        File tmp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp.toPath())))) {
+            out.writeInt(flags.size());
+            for (Map.Entry<UUID, Integer> entry : flags.entrySet()) {
+                out.writeLong(entry.getKey().getMostSignificantBits());
+                out.writeLong(entry.getKey().getLeastSignificantBits());
+                out.writeInt(entry.getValue());
+            }
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Failed to save " + file.getName(), e);
+            return false;
+        }
+        try {
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Failed to save " + file.getName(), e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.wager.storage;
+
+import com.wager.managers.MatchRecord;
+import com.wager.managers.PlayerStats;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Files behind the stats subsystem: one small YAML file per player under {@code stats/}
+ * and an append-only {@code history.csv} of finished matches. Blocking; only call it off
+ * the main thread.
+ */
+public class StatsStore {
+
+    private final File folder;
+    private final File historyFile;
+    private final Logger logger;
+
+    public StatsStore(File dataFolder, Logger logger) {
+        this.folder = new File(dataFolder, "stats");
+        this.historyFile = new File(dataFolder, "history.csv");
+        this.logger = logger;
+        folder.mkdirs();
+    }
+
+    /**
+     * Read a player's record, or an empty one if they have never played
+     */
+    public PlayerStats load(UUID playerId) {
+        File file = file(playerId);
+        if (!file.exists()) return PlayerStats.empty(playerId);
+
+        YamlConfiguration config = YamlConfiguration.loadConfiguration(file);
+        return new PlayerStats(playerId,
+                config.getInt("wins"),
+                config.getInt("losses"),
+                config.getDouble("profit"),
+                config.getDouble("tax-paid"),
+                config.getDouble("rating", PlayerStats.STARTING_RATING),
+                config.getLong("last-match"));
+    }
+
+    /**
+     * Read every stored record, skipping files that aren't named after a player
+     */
+    public List<PlayerStats> loadAll() {
+        List<PlayerStats> all = new ArrayList<>();
+        File[] files = folder.listFiles((dir, name) -> name.endsWith(".yml"));
+        if (files == null) return all;
+        for (File file : files) {
+            UUID playerId;
+            try {
+                playerId = UUID.fromString(file.getName().substring(0, file.getName().length() - 4));
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+            all.add(load(playerId));
+        }
+        return all;
+    }
+
+    /**
+     * Write every record in the batch. Returns false if any of them failed; the rest are written anyway.
+     */
+    public boolean save(Collection<PlayerStats> batch) {
+        boolean ok = true;
+        for (PlayerStats stats : batch) {
+            YamlConfiguration config = new YamlConfiguration();
+            config.set("wins", stats.wins());
+            config.set("losses", stats.losses());
+            config.set("profit", stats.profit());
+            config.set("tax-paid", stats.taxPaid());
+            config.set("rating", stats.rating());
+            config.set("last-match", stats.lastMatch());
+
+            File file = file(stats.playerId());
+            File tmp = new File(file.getPath() + ".tmp");
+            try {
+                Files.writeString(tmp.toPath(), config.saveToString(), StandardCharsets.UTF_8);
+                Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                logger.log(Level.SEVERE, "Failed to save stats for " + stats.playerId(), e);
+                ok = false;
+            }
+        }
+        return ok;
+    }
+
+    /**
+     * Append finished matches to the history file
+     */
+    public boolean appendHistory(List<MatchRecord> matches) {
+        boolean created = !historyFile.exists();
+        try (BufferedWriter out = Files.newBufferedWriter(historyFile.toPath(), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            if (created) {
+                out.write("timestamp,wager,winner,loser,amount,payout,tax,kit,rating_change");
+                out.newLine();
+            }
+            for (MatchRecord match : matches) {
+                out.write(match.timestamp() + "," + match.wagerId() + "," + match.winner() + "," + match.loser() + ","
+                        + match.amount() + "," + match.payout() + "," + match.tax() + ","
+                        + (match.kitId() != null ? match.kitId() : "") + "," + match.ratingChange());
+                out.newLine();
+            }
+            return true;
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Failed to append to " + historyFile.getName(), e);
+            return false;
+        }
+    }
+
+    private File file(UUID playerId) {
+        return new File(folder, playerId + ".yml");
+    }
+}
@@ -0,0 +1,493 @@
+package com.wager.storage;
+
+import com.wager.managers.Wager;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only crash-recovery journal for wagers in flight.
+ *
+ * Records escrow holds, wager state transitions and the serialized inventories of players
+ * sent into an arena, so that after a crash every stake still in escrow can be refunded
+ * and every fighter can get their real inventory back. Records are buffered and written
+ * sequentially in batches by the settlement flusher (see {@link #prepare()}); each one is
+ * length-prefixed and checksummed, and a torn record at the tail ends the replay.
+ *
+ * The journal keeps a small in-memory model of what is still open (escrowed wagers and
+ * unrestored inventories). Once the file grows past the compaction threshold it is
+ * rewritten from that model, so its size tracks the live matches, not the server's history.
+ */
+public class WagerJournal {
+
+    private static final byte STATE = 1;
+    private static final byte HOLD = 2;
+    private static final byte RELEASE = 3;
+    private static final byte CLOSE = 4;
+    private static final byte SNAPSHOT = 5;
+    private static final byte RESTORED = 6;
+
+    private static final int MAX_RECORD = 16 * 1024 * 1024;
+    private static final int COMPACT_AFTER = 10_000;
+
+    /**
+     * A wager that still had stakes in escrow when the journal was last written
+     */
+    public record Interrupted(UUID wagerId, Wager.WagerState state, UUID creator, UUID opponent,
+                              double amount, Map<UUID, Double> holds) {}
+
+    /**
+     * Everything left open by the previous run
+     */
+    public record Recovery(List<Interrupted> wagers, Map<UUID, byte[]> snapshots) {}
+
+    /**
+     * Records drained for one write; see {@link #prepare()}
+     */
+    public static final class Batch {
+        private final List<byte[]> records;
+
+        private Batch(List<byte[]> records) {
+            this.records = records;
+        }
+
+        public boolean isEmpty() {
+            return records.isEmpty();
+        }
+    }
+
+    private static final class OpenWager {
+        Wager.WagerState state;
+        UUID creator;
+        UUID opponent;
+        double amount;
+        final Map<UUID, Double> holds = new LinkedHashMap<>();
+    }
+
+    private final File file;
+    private final Logger logger;
+
+    // Guards the model + pending so a compaction always matches a journal position
+    private final Object lock = new Object();
+    private final Map<UUID, OpenWager> wagers = new HashMap<>(); // wagerId -> OpenWager
+    private final Map<UUID, byte[]> snapshots = new HashMap<>(); // playerId -> PlayerSnapshot bytes
+    private List<byte[]> pending = new ArrayList<>();
+
+    // Guards the channel; only held by the flushing thread
+    private final Object ioLock = new Object();
+    private FileChannel journal;
+    private long journalRecords = 0;
+
+    public WagerJournal(File dataFolder, Logger logger) {
+        this.file = new File(dataFolder, "wagers.journal");
+        this.logger = logger;
+    }
+
+    /**
+     * Replay the journal and return what the previous run left open. Call once, before
+     * anything is recorded.
+     */
+    public Recovery load() throws IOException {
+        journal = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        replay();
+        journal.position(journal.size());
+
+        synchronized (lock) {
+            List<Interrupted> interrupted = new ArrayList<>();
+            for (Map.Entry<UUID, OpenWager> entry : wagers.entrySet()) {
+                OpenWager open = entry.getValue();
+                interrupted.add(new Interrupted(entry.getKey(), open.state, open.creator, open.opponent,
+                        open.amount, new LinkedHashMap<>(open.holds)));
+            }
+            return new Recovery(interrupted, new HashMap<>(snapshots));
+        }
+    }
+
+    // --- Recording ---
+
+    public void recordState(UUID wagerId, Wager.WagerState state, UUID creator, UUID opponent, double amount) {
+        byte[] record = encodeState(wagerId, state, creator, opponent, amount);
+        synchronized (lock) {
+            applyState(wagerId, state, creator, opponent, amount);
+            pending.add(record);
+        }
+    }
+
+    public void recordHold(UUID wagerId, UUID playerId, double amount) {
+        byte[] record = encodeHold(wagerId, playerId, amount);
+        synchronized (lock) {
+            applyHold(wagerId, playerId, amount);
+            pending.add(record);
+        }
+    }
+
+    public void recordRelease(UUID wagerId, UUID playerId) {
+        ByteBuffer body = body(RELEASE, 16 + 16);
+        putUuid(body, wagerId);
+        putUuid(body, playerId);
+        synchronized (lock) {
+            applyRelease(wagerId, playerId);
+            pending.add(body.array());
+        }
+    }
+
+    /**
+     * The wager's escrow was settled or refunded; its money is now the settlement queue's
+     */
+    public void recordClose(UUID wagerId) {
+        ByteBuffer body = body(CLOSE, 16);
+        putUuid(body, wagerId);
+        synchronized (lock) {
+            wagers.remove(wagerId);
+            pending.add(body.array());
+        }
+    }
+
+    public void recordSnapshot(UUID playerId, byte[] snapshot) {
+        byte[] record = encodeSnapshot(playerId, snapshot);
+        synchronized (lock) {
+            snapshots.put(playerId, snapshot);
+            pending.add(record);
+        }
+    }
+
+    public void recordRestored(UUID playerId) {
+        ByteBuffer body = body(RESTORED, 16);
+        putUuid(body, playerId);
+        synchronized (lock) {
+            if (snapshots.remove(playerId) == null) return;
+            pending.add(body.array());
+        }
+    }
+
+    // --- Model ---
+
+    private void applyState(UUID wagerId, Wager.WagerState state, UUID creator, UUID opponent, double amount) {
+        OpenWager open = wagers.computeIfAbsent(wagerId, id -> new OpenWager());
+        open.state = state;
+        open.creator = creator;
+        open.opponent = opponent;
+        open.amount = amount;
+        if (state == Wager.WagerState.FINISHED && open.holds.isEmpty()) {
+            wagers.remove(wagerId);
+        }
+    }
+
+    private void applyHold(UUID wagerId, UUID playerId, double amount) {
+        wagers.computeIfAbsent(wagerId, id -> new OpenWager()).holds.merge(playerId, amount, Double::sum);
+    }
+
+    private void applyRelease(UUID wagerId, UUID playerId) {
+        OpenWager open = wagers.get(wagerId);
+        if (open == null) return;
+        open.holds.remove(playerId);
+        if (open.holds.isEmpty() && (open.state == null || open.state == Wager.WagerState.FINISHED)) {
+            wagers.remove(wagerId);
+        }
+    }
+
+    // --- Writing ---
+
+    /**
+     * Drain everything recorded so far. The settlement queue calls this before it drains
+     * its own deposits and commits the batch only after they are on disk, so an escrow is
+     * never journaled as closed before the payout or refund that closed it is durable.
+     */
+    public Batch prepare() {
+        synchronized (lock) {
+            if (pending.isEmpty()) return new Batch(List.of());
+            Batch batch = new Batch(pending);
+            pending = new ArrayList<>();
+            return batch;
+        }
+    }
+
+    /**
+     * Append a prepared batch and fsync it
+     */
+    public void commit(Batch batch) {
+        synchronized (ioLock) {
+            // Without a journal (failed to open) recovery is off and records are dropped
+            if (batch.isEmpty() || journal == null) return;
+
+            try {
+                writeRecords(batch.records);
+            } catch (IOException e) {
+                logger.log(Level.SEVERE, "Failed to append to " + file.getName(), e);
+                rollback(batch);
+                return;
+            }
+
+            if (journalRecords >= COMPACT_AFTER) {
+                compact();
+            }
+        }
+    }
+
+    /**
+     * Put a prepared batch back in front so it is written with the next one
+     */
+    public void rollback(Batch batch) {
+        if (batch.isEmpty()) return;
+        synchronized (lock) {
+            batch.records.addAll(pending);
+            pending = batch.records;
+        }
+    }
+
+    /**
+     * Write whatever is left and close the file. Only call once the settlement queue has
+     * been shut down.
+     */
+    public void close() {
+        synchronized (ioLock) {
+            commit(prepare());
+            if (journal == null) return;
+            try {
+                journal.close();
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Failed to close " + file.getName(), e);
+            }
+            journal = null;
+        }
+    }
+
+    private void writeRecords(List<byte[]> records) throws IOException {
+        int size = 0;
+        for (byte[] record : records) size += record.length + 8;
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        CRC32 crc = new CRC32();
+        for (byte[] record : records) {
+            crc.reset();
+            crc.update(record);
+            buffer.putInt(record.length);
+            buffer.put(record);
+            buffer.putInt((int) crc.getValue());
+        }
+        buffer.flip();
+
+        long start = journal.position();
+        try {
+            while (buffer.hasRemaining()) {
+                journal.write(buffer);
+            }
+            journal.force(false);
+        } catch (IOException e) {
+            // Don't leave a torn record in front of the retry
+            journal.truncate(start);
+            journal.position(start);
+            throw e;
+        }
+        journalRecords += records.size();
+    }
+
+    private void replay() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(4);
+        ByteBuffer trailer = ByteBuffer.allocate(4);
+        CRC32 crc = new CRC32();
+        long position = 0;
+        long size = journal.size();
+
+        journal.position(0);
+        while (position + 8 <= size) {
+            header.clear();
+            readFully(header);
+            int length = header.flip().getInt();
+            if (length <= 0 || length > MAX_RECORD || position + 8 + length > size) break;
+
+            ByteBuffer body = ByteBuffer.allocate(length);
+            readFully(body);
+            trailer.clear();
+            readFully(trailer);
+            crc.reset();
+            crc.update(body.array());
+            if (trailer.flip().getInt() != (int) crc.getValue()) break;
+
+            try {
+                apply(body.flip());
+            } catch (RuntimeException e) {
+                logger.warning("Skipping unreadable " + file.getName() + " record at offset " + position);
+            }
+            position += 8 + length;
+            journalRecords++;
+        }
+
+        if (position < size) {
+            logger.warning("Discarding " + (size - position) + " bytes of incomplete wager journal data");
+            journal.truncate(position);
+            journal.force(false);
+        }
+    }
+
+    private void readFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (journal.read(buffer) < 0) break;
+        }
+    }
+
+    private void apply(ByteBuffer body) {
+        byte type = body.get();
+        synchronized (lock) {
+            switch (type) {
+                case STATE -> applyState(getUuid(body), decodeState(body.get()),
+                        getUuid(body), getUuid(body), body.getDouble());
+                case HOLD -> applyHold(getUuid(body), getUuid(body), body.getDouble());
+                case RELEASE -> applyRelease(getUuid(body), getUuid(body));
+                case CLOSE -> wagers.remove(getUuid(body));
+                case SNAPSHOT -> {
+                    UUID playerId = getUuid(body);
+                    byte[] snapshot = new byte[body.getInt()];
+                    body.get(snapshot);
+                    snapshots.put(playerId, snapshot);
+                }
+                case RESTORED -> snapshots.remove(getUuid(body));
+                default -> throw new IllegalStateException("Unknown record type " + type);
+            }
+        }
+    }
+
+    // --- Compaction ---
+
+    /**
+     * Rewrite the journal from the open model. Must be called with ioLock held.
+     */
+    private void compact() {
+        List<byte[]> live = new ArrayList<>();
+        synchronized (lock) {
+            // Anything recorded but not yet committed would be committed early by the rewrite
+            if (!pending.isEmpty()) return;
+            for (Map.Entry<UUID, OpenWager> entry : wagers.entrySet()) {
+                OpenWager open = entry.getValue();
+                if (open.state != null) {
+                    live.add(encodeState(entry.getKey(), open.state, open.creator, open.opponent, open.amount));
+                }
+                for (Map.Entry<UUID, Double> hold : open.holds.entrySet()) {
+                    live.add(encodeHold(entry.getKey(), hold.getKey(), hold.getValue()));
+                }
+            }
+            for (Map.Entry<UUID, byte[]> snapshot : snapshots.entrySet()) {
+                live.add(encodeSnapshot(snapshot.getKey(), snapshot.getValue()));
+            }
+        }
+
+        File tmp = new File(file.getPath() + ".tmp");
+        FileChannel old = journal;
+        try {
+            try (FileOutputStream out = new FileOutputStream(tmp)) {
+                journal = out.getChannel();
+                journalRecords = 0;
+                writeRecords(live);
+            }
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Failed to compact " + file.getName(), e);
+            journal = old;
+            journalRecords = COMPACT_AFTER / 2; // Try again later rather than on every write
+            return;
+        }
+
+        try {
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Failed to replace " + file.getName() + " after compaction", e);
+            journal = old;
+            journalRecords = COMPACT_AFTER / 2;
+            return;
+        }
+
+        try {
+            old.close();
+            journal = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+            journal.position(journal.size());
+        } catch (IOException e) {
+            // The old channel points at the replaced file, so writing on would lose records
+            logger.log(Level.SEVERE, "Failed to reopen " + file.getName() + "; wager recovery is disabled", e);
+            journal = null;
+        }
+    }
+
+    // --- Encoding ---
+
+    /**
+     * On-disk code for a state. Fixed per state, so reordering or adding states never
+     * changes what an existing journal means; never reuse a retired code.
+     */
+    private static byte stateCode(Wager.WagerState state) {
+        return switch (state) {
+            case WAITING -> 0;
+            case ACCEPTED -> 1;
+            case COUNTDOWN -> 2;
+            case IN_PROGRESS -> 3;
+            case FINISHED -> 4;
+        };
+    }
+
+    private static Wager.WagerState decodeState(byte code) {
+        return switch (code) {
+            case 0 -> Wager.WagerState.WAITING;
+            case 1 -> Wager.WagerState.ACCEPTED;
+            case 2 -> Wager.WagerState.COUNTDOWN;
+            case 3 -> Wager.WagerState.IN_PROGRESS;
+            case 4 -> Wager.WagerState.FINISHED;
+            default -> throw new IllegalStateException("Unknown wager state code " + code);
+        };
+    }
+
+    private static byte[] encodeState(UUID wagerId, Wager.WagerState state, UUID creator, UUID opponent, double amount) {
+        ByteBuffer body = body(STATE, 16 + 1 + 16 + 16 + 8);
+        putUuid(body, wagerId);
+        body.put(stateCode(state));
+        putUuid(body, creator);
+        putUuid(body, opponent);
+        body.putDouble(amount);
+        return body.array();
+    }
+
+    private static byte[] encodeHold(UUID wagerId, UUID playerId, double amount) {
+        ByteBuffer body = body(HOLD, 16 + 16 + 8);
+        putUuid(body, wagerId);
+        putUuid(body, playerId);
+        body.putDouble(amount);
+        return body.array();
+    }
+
+    private static byte[] encodeSnapshot(UUID playerId, byte[] snapshot) {
+        ByteBuffer body = body(SNAPSHOT, 16 + 4 + snapshot.length);
+        putUuid(body, playerId);
+        body.putInt(snapshot.length);
+        body.put(snapshot);
+        return body.array();
+    }
+
+    private static ByteBuffer body(byte type, int size) {
+        ByteBuffer body = ByteBuffer.allocate(1 + size);
+        body.put(type);
+        return body;
+    }
+
+    private static void putUuid(ByteBuffer buffer, UUID id) {
+        buffer.putLong(id != null ? id.getMostSignificantBits() : 0L);
+        buffer.putLong(id != null ? id.getLeastSignificantBits() : 0L);
+    }
+
+    private static UUID getUuid(ByteBuffer buffer) {
+        long most = buffer.getLong();
+        long least = buffer.getLong();
+        return most == 0L && least == 0L ? null : new UUID(most, least);
+    }
+}
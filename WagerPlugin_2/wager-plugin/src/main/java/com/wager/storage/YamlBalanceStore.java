@@ -0,0 +1,147 @@
+package com.wager.storage;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Write-behind balance store backed by economy.yml.
+ * Balances live in memory and changed accounts are tracked so that a single
+ * periodic {@link #flush()} writes every change since the last one.
+ * Applied settlement ids are kept under {@value #SETTLED_KEY} and saved with the balances.
+ */
+public class YamlBalanceStore implements BalanceStore {
+
+    static final String SETTLED_KEY = "settled";
+
+    private final File file;
+    private final Logger logger;
+    private final Map<UUID, Double> balances = new ConcurrentHashMap<>();
+    private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> settled = ConcurrentHashMap.newKeySet();
+    private volatile boolean settledDirty = false;
+
+    // Held while a deposit records its settlement, and while flush copies state into the config,
+    // so a save never has one half of a deposit without the other
+    private final Object depositLock = new Object();
+
+    // Only touched while holding the lock
+    private final Object saveLock = new Object();
+    private YamlConfiguration config;
+
+    public YamlBalanceStore(File file, Logger logger) {
+        this.file = file;
+        this.logger = logger;
+    }
+
+    @Override
+    public void load() throws IOException {
+        if (!file.exists()) {
+            file.createNewFile();
+        }
+        synchronized (saveLock) {
+            config = YamlConfiguration.loadConfiguration(file);
+            for (String key : config.getKeys(false)) {
+                if (key.equals(SETTLED_KEY)) continue;
+                try {
+                    balances.put(UUID.fromString(key), config.getDouble(key));
+                } catch (IllegalArgumentException e) {
+                    logger.warning("Skipping invalid economy entry: " + key);
+                }
+            }
+            for (String id : config.getStringList(SETTLED_KEY)) {
+                try {
+                    settled.add(UUID.fromString(id));
+                } catch (IllegalArgumentException e) {
+                    logger.warning("Skipping invalid settlement id: " + id);
+                }
+            }
+        }
+        logger.info("Loaded " + balances.size() + " balances from " + file.getName());
+    }
+
+    @Override
+    public double getBalance(UUID account, double startingBalance) {
+        Double balance = balances.get(account);
+        if (balance != null) return balance;
+
+        Double existing = balances.putIfAbsent(account, startingBalance);
+        if (existing != null) return existing;
+        dirty.add(account);
+        return startingBalance;
+    }
+
+    @Override
+    public double adjust(UUID account, double delta, UUID wagerId, double startingBalance) {
+        double balance = balances.merge(account, startingBalance + delta, (old, ignored) -> old + delta);
+        dirty.add(account);
+        return balance;
+    }
+
+    @Override
+    public boolean deposit(UUID account, double amount, UUID settlementId, double startingBalance) {
+        synchronized (depositLock) {
+            if (!settled.add(settlementId)) return false;
+            adjust(account, amount, null, startingBalance);
+            settledDirty = true;
+            return true;
+        }
+    }
+
+    @Override
+    public void retainSettlements(Collection<UUID> settlementIds) {
+        if (settled.retainAll(settlementIds)) {
+            settledDirty = true;
+        }
+    }
+
+    @Override
+    public boolean flush() {
+        // Checked under the lock so a flush that's already writing is waited for
+        synchronized (saveLock) {
+            if (config == null) return false;
+            if (dirty.isEmpty() && !settledDirty) return true;
+
+            List<UUID> written = new ArrayList<>();
+            boolean settledWritten;
+            synchronized (depositLock) {
+                for (UUID account : dirty) {
+                    dirty.remove(account);
+                    written.add(account);
+                    config.set(account.toString(), balances.get(account));
+                }
+                settledWritten = settledDirty;
+                settledDirty = false;
+                List<String> ids = new ArrayList<>();
+                for (UUID settlementId : settled) ids.add(settlementId.toString());
+                config.set(SETTLED_KEY, ids.isEmpty() ? null : ids);
+            }
+
+            try {
+                config.save(file);
+                return true;
+            } catch (IOException e) {
+                // Keep them dirty so the next flush retries
+                dirty.addAll(written);
+                if (settledWritten) settledDirty = true;
+                logger.log(Level.SEVERE, "Failed to save " + file.getName(), e);
+                return false;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+}
@@ -77,6 +77,17 @@ public class FormatUtil {
         return Double.parseDouble(cleaned) * multiplier;
     }
 
+    /**
+     * Formats a duration: 45000 -> 45s, 150000 -> 2m 30s
+     */
+    public static String formatDuration(long millis) {
+        long seconds = Math.max(1, (millis + 999) / 1000);
+        if (seconds < 60) return seconds + "s";
+        long minutes = seconds / 60;
+        seconds %= 60;
+        return seconds == 0 ? minutes + "m" : minutes + "m " + seconds + "s";
+    }
+
     /**
      * Color utility
      */
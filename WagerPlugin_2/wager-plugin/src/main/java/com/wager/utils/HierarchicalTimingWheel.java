@@ -0,0 +1,126 @@
+package com.wager.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel for long timeouts (minutes to days).
+ *
+ * Each level has 64 buckets; a bucket on level {@code n} spans 64^n ticks. Items go on the
+ * lowest level whose range covers their delay, and move down a level ("cascade") when
+ * the wheel reaches their bucket, so every item is touched a handful of times in total
+ * and each tick is O(1) amortized no matter how far out items are scheduled.
+ *
+ * Methods are synchronized so items can be scheduled and cancelled from any thread;
+ * {@code fire} callbacks run outside the lock on the thread calling {@link #advance}.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+
+    /**
+     * Handle for a scheduled item
+     */
+    public static final class Timeout<T> {
+        private final T item;
+        private final long deadline;
+        private volatile boolean cancelled;
+
+        private Timeout(T item, long deadline) {
+            this.item = item;
+            this.deadline = deadline;
+        }
+
+        public T getItem() {
+            return item;
+        }
+
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    private final List<Timeout<T>>[][] levels;
+    private final long maxDelay;
+    private long now = 0;
+
+    /**
+     * @param levelCount number of levels; the wheel covers delays up to 64^levelCount - 1 ticks
+     */
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(int levelCount) {
+        if (levelCount < 1 || levelCount > 10) {
+            throw new IllegalArgumentException("levelCount must be between 1 and 10");
+        }
+        this.levels = new List[levelCount][SLOTS];
+        for (List<Timeout<T>>[] level : levels) {
+            for (int i = 0; i < SLOTS; i++) {
+                level[i] = new ArrayList<>();
+            }
+        }
+        this.maxDelay = (1L << (BITS * levelCount)) - 1;
+    }
+
+    /**
+     * Schedule an item to fire after {@code delayTicks} calls to {@link #advance}.
+     * Delays beyond the wheel's range are clamped to it.
+     */
+    public synchronized Timeout<T> schedule(long delayTicks, T item) {
+        long delay = Math.min(Math.max(1, delayTicks), maxDelay);
+        Timeout<T> timeout = new Timeout<>(item, now + delay);
+        place(timeout);
+        return timeout;
+    }
+
+    /**
+     * Move forward one tick and hand every item now due to {@code fire}
+     */
+    public void advance(Consumer<T> fire) {
+        List<Timeout<T>> due;
+        synchronized (this) {
+            now++;
+
+            // Pull the next span of each higher level down once the level below wraps
+            for (int level = 1; level < levels.length; level++) {
+                if ((now & ((1L << (BITS * level)) - 1)) != 0) break;
+                int slot = (int) ((now >>> (BITS * level)) & MASK);
+                List<Timeout<T>> bucket = levels[level][slot];
+                if (bucket.isEmpty()) continue;
+                levels[level][slot] = new ArrayList<>();
+                for (Timeout<T> timeout : bucket) {
+                    if (!timeout.cancelled) place(timeout);
+                }
+            }
+
+            int slot = (int) (now & MASK);
+            due = levels[0][slot];
+            if (due.isEmpty()) return;
+            levels[0][slot] = new ArrayList<>();
+        }
+
+        for (Timeout<T> timeout : due) {
+            if (!timeout.cancelled) fire.accept(timeout.item);
+        }
+    }
+
+    public synchronized long getTick() {
+        return now;
+    }
+
+    private void place(Timeout<T> timeout) {
+        long delay = Math.max(0, timeout.deadline - now);
+        int level = 0;
+        while (level < levels.length - 1 && delay >= (1L << (BITS * (level + 1)))) {
+            level++;
+        }
+        int slot = (int) ((Math.max(timeout.deadline, now) >>> (BITS * level)) & MASK);
+        levels[level][slot].add(timeout);
+    }
+}
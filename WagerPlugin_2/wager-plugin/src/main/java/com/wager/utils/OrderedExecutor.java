@@ -0,0 +1,66 @@
+package com.wager.utils;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs tasks on a small thread pool while keeping tasks that share a key in submission order.
+ * Tasks for different keys run in parallel; tasks for the same key never overlap.
+ */
+public class OrderedExecutor {
+
+    private final ExecutorService pool;
+    private final Map<UUID, CompletableFuture<?>> tails = new ConcurrentHashMap<>();
+
+    public OrderedExecutor(String name, int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queue a task behind every earlier task with the same key.
+     * A failed task does not stop the ones queued after it.
+     */
+    public <T> CompletableFuture<T> submit(UUID key, Supplier<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        CompletableFuture<?> tail = tails.compute(key, (k, previousTail) -> {
+            CompletableFuture<?> previous = previousTail != null ? previousTail : CompletableFuture.completedFuture(null);
+            return previous.handleAsync((ignored, error) -> {
+                try {
+                    result.complete(task.get());
+                } catch (Throwable t) {
+                    result.completeExceptionally(t);
+                }
+                return null;
+            }, pool);
+        });
+
+        // Drop the chain once it's idle so the map only holds players with work in flight
+        tail.whenComplete((ignored, error) -> tails.remove(key, tail));
+        return result;
+    }
+
+    /**
+     * Stop accepting work and wait for queued tasks to finish
+     */
+    public boolean shutdown(long timeout, TimeUnit unit) {
+        pool.shutdown();
+        try {
+            return pool.awaitTermination(timeout, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
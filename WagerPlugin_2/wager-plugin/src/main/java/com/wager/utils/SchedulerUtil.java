@@ -6,6 +6,7 @@ import org.bukkit.Location;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.scheduler.BukkitRunnable;
 
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 /**
@@ -85,6 +86,26 @@ public class SchedulerUtil {
         }
     }
 
+    /**
+     * Run a repeating task asynchronously. Delays are in ticks; the consumer receives a
+     * cancel {@link Runnable} just like {@link #runTaskTimer}.
+     */
+    public static void runTaskTimerAsync(Plugin plugin, Consumer<Runnable> task,
+                                         long initialDelay, long period) {
+        if (FOLIA) {
+            plugin.getServer().getAsyncScheduler()
+                    .runAtFixedRate(plugin, t -> task.accept(t::cancel),
+                            Math.max(1, initialDelay) * 50L, period * 50L, TimeUnit.MILLISECONDS);
+        } else {
+            new BukkitRunnable() {
+                @Override
+                public void run() {
+                    task.accept(this::cancel);
+                }
+            }.runTaskTimerAsynchronously(plugin, initialDelay, period);
+        }
+    }
+
     /**
      * Run a task on the entity's owning thread (Folia) or the main thread (Bukkit).
      */
@@ -96,6 +117,22 @@ public class SchedulerUtil {
         }
     }
 
+    /**
+     * Like {@link #runEntityTask(Plugin, Entity, Runnable)}, but runs {@code retired} instead
+     * if the entity is removed before the task gets to run (Folia only; on Bukkit the task
+     * always runs, so check the entity is still valid inside it).
+     *
+     * @return false if the entity was already retired, in which case neither callback will
+     *         ever run and the caller must clean up itself
+     */
+    public static boolean runEntityTask(Plugin plugin, Entity entity, Runnable task, Runnable retired) {
+        if (FOLIA) {
+            return entity.getScheduler().run(plugin, t -> task.run(), retired) != null;
+        }
+        plugin.getServer().getScheduler().runTask(plugin, task);
+        return true;
+    }
+
     /**
      * Teleport a player in a thread-safe way on both Bukkit and Folia.
      */
@@ -0,0 +1,106 @@
+package com.wager.utils;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel driven one tick at a time.
+ *
+ * Items are dropped into the bucket for the tick they are due on, so advancing only looks
+ * at that one bucket: the cost per tick is the number of items due (plus any parked for a
+ * later lap of the wheel), not the number scheduled. Not thread-safe; schedule and advance
+ * from the thread that owns the wheel.
+ */
+public class TimingWheel<T> {
+
+    /**
+     * Handle for a scheduled item
+     */
+    public static final class Timeout<T> {
+        private final T item;
+        private final long deadline;
+        private volatile boolean cancelled;
+
+        private Timeout(T item, long deadline) {
+            this.item = item;
+            this.deadline = deadline;
+        }
+
+        public T getItem() {
+            return item;
+        }
+
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    private final List<Timeout<T>>[] buckets;
+    private final int mask;
+    private long tick = 0;
+    private int size = 0;
+
+    /**
+     * @param slots bucket count, rounded up to a power of two. Delays shorter than this
+     *              never wait a lap, so size it above the common delay.
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(int slots) {
+        int capacity = Integer.highestOneBit(Math.max(2, slots - 1)) << 1;
+        this.buckets = new List[capacity];
+        for (int i = 0; i < capacity; i++) {
+            buckets[i] = new ArrayList<>();
+        }
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Schedule an item to fire after {@code delayTicks} calls to {@link #advance}
+     */
+    public Timeout<T> schedule(long delayTicks, T item) {
+        Timeout<T> timeout = new Timeout<>(item, tick + Math.max(1, delayTicks));
+        buckets[(int) (timeout.deadline & mask)].add(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Move forward one tick and hand every item now due to {@code fire}.
+     * Items scheduled from inside {@code fire} land in a later tick.
+     */
+    public void advance(Consumer<T> fire) {
+        tick++;
+        List<Timeout<T>> bucket = buckets[(int) (tick & mask)];
+        if (bucket.isEmpty()) return;
+
+        List<T> due = new ArrayList<>();
+        for (Iterator<Timeout<T>> it = bucket.iterator(); it.hasNext(); ) {
+            Timeout<T> timeout = it.next();
+            if (timeout.cancelled) {
+                it.remove();
+                size--;
+            } else if (timeout.deadline <= tick) {
+                it.remove();
+                size--;
+                due.add(timeout.item);
+            }
+        }
+        for (T item : due) {
+            fire.accept(item);
+        }
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public int size() {
+        return size;
+    }
+}
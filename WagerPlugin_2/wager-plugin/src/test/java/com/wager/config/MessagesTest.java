@@ -0,0 +1,162 @@
+package com.wager.config;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MessagesTest {
+
+    private static final String CONFIG = String.join("\n",
+            "default-locale: en_us",
+            "locales:",
+            "  en_us:",
+            "    cancel:",
+            "      cancelled: \"<gray>Cancelled: <reason> <red>-<amount></red> back\"",
+            "    result:",
+            "      lost:",
+            "        title: \"<red>Lost <amount>\"",
+            "  de:",
+            "    cancel:",
+            "      cancelled: \"<gray>Abgebrochen: <reason>\"");
+
+    private static YamlConfiguration yaml(String text) throws InvalidConfigurationException {
+        YamlConfiguration config = new YamlConfiguration();
+        config.loadFromString(text);
+        return config;
+    }
+
+    private static YamlConfiguration shipped() throws Exception {
+        try (InputStream in = MessagesTest.class.getClassLoader().getResourceAsStream("messages.yml")) {
+            assertNotNull(in, "messages.yml is not on the classpath");
+            return YamlConfiguration.loadConfiguration(new InputStreamReader(in, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static String plain(Component component) {
+        return PlainTextComponentSerializer.plainText().serialize(component);
+    }
+
+    // Effective color of the first text component whose own content contains the given text
+    private static TextColor colorOf(Component component, String text) {
+        return colorOf(component, text, null);
+    }
+
+    private static TextColor colorOf(Component component, String text, TextColor inherited) {
+        TextColor color = component.color() != null ? component.color() : inherited;
+        if (component instanceof TextComponent textComponent && textComponent.content().contains(text)) {
+            return color;
+        }
+        for (Component child : component.children()) {
+            TextColor found = colorOf(child, text, color);
+            if (found != null) return found;
+        }
+        return null;
+    }
+
+    @Test
+    void fillsSlotsAndKeepsTheirStyle() throws Exception {
+        Messages messages = Messages.parse(yaml(CONFIG), null);
+        Component rendered = messages.render(Locale.US, Message.CANCELLED,
+                Param.REASON.with("Timed out"), Param.AMOUNT.with(1500.0));
+
+        assertEquals("Cancelled: Timed out -$1,500 back", plain(rendered));
+        assertEquals(NamedTextColor.RED, colorOf(rendered, "$1,500"));
+        assertEquals(NamedTextColor.GRAY, colorOf(rendered, "Timed out"));
+    }
+
+    @Test
+    void insertsValuesAsPlainText() throws Exception {
+        Messages messages = Messages.parse(yaml(CONFIG), null);
+        Component rendered = messages.render(Locale.US, Message.CANCELLED,
+                Param.REASON.with("<red><bold>hi"), Param.AMOUNT.with(1.0));
+
+        assertEquals("Cancelled: <red><bold>hi -$1 back", plain(rendered));
+    }
+
+    @Test
+    void missingArgumentsRenderEmpty() throws Exception {
+        Messages messages = Messages.parse(yaml(CONFIG), null);
+        assertEquals("Cancelled:  -$5 back", plain(messages.render(Locale.US, Message.CANCELLED, Param.AMOUNT.with(5.0))));
+    }
+
+    @Test
+    void rendersAreIndependent() throws Exception {
+        Messages messages = Messages.parse(yaml(CONFIG), null);
+        Component first = messages.render(Locale.US, Message.LOST_TITLE, Param.AMOUNT.with(10.0));
+        Component second = messages.render(Locale.US, Message.LOST_TITLE, Param.AMOUNT.with(20.0));
+
+        assertEquals("Lost $10", plain(first));
+        assertEquals("Lost $20", plain(second));
+    }
+
+    @Test
+    void messagesWithoutSlotsAreShared() throws Exception {
+        Messages messages = Messages.parse(shipped(), null);
+        assertSame(messages.render(Locale.US, Message.FIGHT_TITLE), messages.render(Locale.US, Message.FIGHT_TITLE));
+    }
+
+    @Test
+    void picksTheClosestLocale() throws Exception {
+        Messages messages = Messages.parse(yaml(CONFIG), null);
+
+        assertEquals("Abgebrochen: x", plain(messages.render(Locale.GERMANY, Message.CANCELLED, Param.REASON.with("x"))));
+        assertEquals("Abgebrochen: x", plain(messages.render(Locale.GERMAN, Message.CANCELLED, Param.REASON.with("x"))));
+        // Left out of de, so it comes from the default locale
+        assertEquals("Lost $3", plain(messages.render(Locale.GERMANY, Message.LOST_TITLE, Param.AMOUNT.with(3.0))));
+        // No section at all
+        assertTrue(plain(messages.render(Locale.FRANCE, Message.CANCELLED, Param.REASON.with("x"))).startsWith("Cancelled: x"));
+        assertTrue(plain(messages.render((Locale) null, Message.CANCELLED, Param.REASON.with("x"))).startsWith("Cancelled: x"));
+    }
+
+    @Test
+    void defaultLocaleFallsBackToBuiltIn() throws Exception {
+        YamlConfiguration builtIn = yaml(String.join("\n",
+                "locales:",
+                "  en_us:",
+                "    match:",
+                "      fight:",
+                "        title: \"<red>FIGHT\""));
+        Messages messages = Messages.parse(yaml(CONFIG), builtIn);
+
+        assertEquals("FIGHT", plain(messages.render(Locale.US, Message.FIGHT_TITLE)));
+        // Not in either file: the path stands in so the gap is visible
+        assertEquals("match.fight.subtitle", plain(messages.render(Locale.US, Message.FIGHT_SUBTITLE)));
+    }
+
+    @Test
+    void rejectsConfigWithoutTheDefaultLocale() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> Messages.parse(yaml("default-locale: fr_fr\n" + CONFIG.substring(CONFIG.indexOf("locales:"))), null));
+        assertThrows(IllegalArgumentException.class, () -> Messages.parse(yaml("default-locale: en_us"), null));
+    }
+
+    @Test
+    void shippedMessagesUseOnlyDeclaredPlaceholders() throws Exception {
+        YamlConfiguration shipped = shipped();
+        Messages messages = Messages.parse(shipped, shipped);
+        for (Message message : Message.values()) {
+            Param.Arg[] args = message.getParams().stream().map(param -> new Param.Arg(param, "X")).toArray(Param.Arg[]::new);
+            String text = plain(messages.render(Locale.US, message, args));
+            // An undeclared or misspelt tag would be left in the output as literal text
+            assertFalse(text.contains("<") || text.contains(">"), message + " renders as: " + text);
+            assertFalse(text.chars().anyMatch(c -> c >= '\uE000' && c < '\uE100'), message + " leaked a slot");
+            assertFalse(text.equals(message.getPath()), message + " is missing from messages.yml");
+        }
+    }
+}
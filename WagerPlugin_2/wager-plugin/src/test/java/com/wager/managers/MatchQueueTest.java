@@ -0,0 +1,117 @@
+package com.wager.managers;
+
+import com.wager.config.WagerSettings;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Uses the built-in tolerances: 5% straight away, widening 1% per second up to 25%.
+ */
+class MatchQueueTest {
+
+    private static final WagerSettings SETTINGS = WagerSettings.defaults();
+    private static final long T0 = 1_000_000L;
+
+    private final MatchQueue queue = new MatchQueue();
+
+    @Test
+    void pairsStakesWithinTolerance() {
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        assertNull(queue.add(alice, 1000, T0, SETTINGS));
+
+        MatchQueue.Pair pair = queue.add(bob, 1040, T0, SETTINGS);
+        assertNotNull(pair);
+        assertEquals(alice, pair.first().playerId());
+        assertEquals(bob, pair.second().playerId());
+        assertEquals(0, queue.size());
+        assertFalse(queue.contains(alice));
+    }
+
+    @Test
+    void queuesStakesOutsideTolerance() {
+        assertNull(queue.add(UUID.randomUUID(), 1000, T0, SETTINGS));
+        assertNull(queue.add(UUID.randomUUID(), 1100, T0, SETTINGS));
+        assertEquals(2, queue.size());
+    }
+
+    @Test
+    void picksTheNearerNeighbour() {
+        UUID low = UUID.randomUUID();
+        UUID high = UUID.randomUUID();
+        queue.add(low, 1000, T0, SETTINGS);
+        queue.add(high, 1080, T0, SETTINGS);
+
+        MatchQueue.Pair pair = queue.add(UUID.randomUUID(), 1045, T0, SETTINGS);
+        assertNotNull(pair);
+        assertEquals(high, pair.first().playerId());
+        assertTrue(queue.contains(low));
+    }
+
+    @Test
+    void sweepPairsOnceTolerancesWiden() {
+        queue.add(UUID.randomUUID(), 1000, T0, SETTINGS);
+        queue.add(UUID.randomUUID(), 1100, T0, SETTINGS);
+
+        // 8% of either stake is still short of the 100 gap
+        assertTrue(queue.sweep(T0 + 3_000, SETTINGS).isEmpty());
+        assertEquals(2, queue.size());
+
+        List<MatchQueue.Pair> pairs = queue.sweep(T0 + 5_000, SETTINGS);
+        assertEquals(1, pairs.size());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void toleranceStopsWideningAtTheCap() {
+        queue.add(UUID.randomUUID(), 1000, T0, SETTINGS);
+        queue.add(UUID.randomUUID(), 2000, T0, SETTINGS);
+
+        assertTrue(queue.sweep(T0 + 3_600_000, SETTINGS).isEmpty());
+    }
+
+    @Test
+    void sweepPairsEachTicketOnce() {
+        for (double amount : new double[]{1000, 1100, 1210, 1331}) {
+            assertNull(queue.add(UUID.randomUUID(), amount, T0, SETTINGS));
+        }
+
+        List<MatchQueue.Pair> pairs = queue.sweep(T0 + 20_000, SETTINGS);
+        assertEquals(2, pairs.size());
+        assertEquals(1000, pairs.get(0).first().amount());
+        assertEquals(1100, pairs.get(0).second().amount());
+        assertEquals(1210, pairs.get(1).first().amount());
+        assertEquals(1331, pairs.get(1).second().amount());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void requeueKeepsPlaceUnlessPlayerRejoined() {
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        queue.add(alice, 1000, T0, SETTINGS);
+        MatchQueue.Pair pair = queue.add(bob, 1000, T0, SETTINGS);
+        assertNotNull(pair);
+
+        // Bob turned out to be busy; Alice goes back with her original ticket
+        queue.requeue(pair.first());
+        assertTrue(queue.contains(alice));
+        assertEquals(1, queue.size());
+
+        // Already queued again, so the stale ticket is ignored
+        queue.requeue(pair.first());
+        assertEquals(1, queue.size());
+
+        assertTrue(queue.remove(alice));
+        assertFalse(queue.remove(alice));
+        assertEquals(0, queue.size());
+    }
+}
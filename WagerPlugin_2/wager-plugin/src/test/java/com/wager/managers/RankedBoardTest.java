@@ -0,0 +1,120 @@
+package com.wager.managers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RankedBoardTest {
+
+    @Test
+    void ranksHighestFirstWithUuidTieBreak() {
+        RankedBoard board = new RankedBoard();
+        UUID low = new UUID(0, 1);
+        UUID tiedA = new UUID(0, 2);
+        UUID tiedB = new UUID(0, 3);
+        board.update(low, 10);
+        board.update(tiedB, 50);
+        board.update(tiedA, 50);
+
+        assertEquals(1, board.rank(tiedA));
+        assertEquals(2, board.rank(tiedB));
+        assertEquals(3, board.rank(low));
+        assertEquals(-1, board.rank(UUID.randomUUID()));
+        assertEquals(List.of(
+                new RankedBoard.Entry(1, tiedA, 50),
+                new RankedBoard.Entry(2, tiedB, 50),
+                new RankedBoard.Entry(3, low, 10)), board.range(0, 10));
+    }
+
+    @Test
+    void updateMovesAndRemoveDrops() {
+        RankedBoard board = new RankedBoard();
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        board.update(alice, 100);
+        board.update(bob, 200);
+        assertEquals(2, board.rank(alice));
+
+        board.update(alice, 300);
+        assertEquals(1, board.rank(alice));
+        assertEquals(2, board.size());
+
+        board.remove(bob);
+        board.remove(bob);
+        assertEquals(1, board.size());
+        assertEquals(-1, board.rank(bob));
+    }
+
+    @Test
+    void versionOnlyChangesWithTheBoard() {
+        RankedBoard board = new RankedBoard();
+        UUID alice = UUID.randomUUID();
+        board.update(alice, 5);
+        long version = board.getVersion();
+
+        board.update(alice, 5);
+        board.remove(UUID.randomUUID());
+        assertEquals(version, board.getVersion());
+
+        board.update(alice, 6);
+        assertTrue(board.getVersion() > version);
+    }
+
+    @Test
+    void rangeHandlesOffsetsPastTheEnd() {
+        RankedBoard board = new RankedBoard();
+        for (int i = 0; i < 5; i++) board.update(UUID.randomUUID(), i);
+
+        assertEquals(2, board.range(3, 28).size());
+        assertEquals(0, board.range(5, 28).size());
+        assertEquals(0, board.range(50, 28).size());
+    }
+
+    @Test
+    void matchesASortAfterRandomChanges() {
+        Random random = new Random(1);
+        RankedBoard board = new RankedBoard();
+        Map<UUID, Double> scores = new HashMap<>();
+        List<UUID> players = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) players.add(UUID.randomUUID());
+
+        for (int i = 0; i < 50_000; i++) {
+            UUID player = players.get(random.nextInt(players.size()));
+            if (random.nextInt(10) == 0) {
+                board.remove(player);
+                scores.remove(player);
+            } else {
+                // Few distinct scores, so ties are common
+                double score = random.nextInt(300);
+                board.update(player, score);
+                scores.put(player, score);
+            }
+        }
+
+        List<Map.Entry<UUID, Double>> sorted = new ArrayList<>(scores.entrySet());
+        sorted.sort(Map.Entry.<UUID, Double>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()));
+
+        assertEquals(sorted.size(), board.size());
+        for (int i = 0; i < sorted.size(); i++) {
+            assertEquals(i + 1, board.rank(sorted.get(i).getKey()));
+        }
+        for (int offset = 0; offset < sorted.size() + 30; offset += 7) {
+            List<RankedBoard.Entry> page = board.range(offset, 28);
+            assertEquals(Math.max(0, Math.min(28, sorted.size() - offset)), page.size());
+            for (int j = 0; j < page.size(); j++) {
+                Map.Entry<UUID, Double> expected = sorted.get(offset + j);
+                assertEquals(new RankedBoard.Entry(offset + j + 1, expected.getKey(), expected.getValue()), page.get(j));
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.wager.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JournalBalanceStoreTest {
+
+    private static final Logger LOGGER = Logger.getLogger("JournalBalanceStoreTest");
+    private static final double START = 100.0;
+
+    @TempDir
+    File dir;
+
+    private JournalBalanceStore open(int compactAfter) throws IOException {
+        JournalBalanceStore store = new JournalBalanceStore(dir, LOGGER, compactAfter);
+        store.load();
+        return store;
+    }
+
+    @Test
+    void replaysJournalWithoutSnapshot() throws IOException {
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        JournalBalanceStore store = open(1000);
+        store.adjust(alice, -25, UUID.randomUUID(), START);
+        store.adjust(bob, 40, null, START);
+        store.adjust(alice, 5.5, null, START);
+        store.flush();
+
+        // Simulate a crash: never closed, so only the journal is on disk
+        assertFalse(new File(dir, "economy.snapshot").exists());
+        JournalBalanceStore reopened = open(1000);
+        assertEquals(80.5, reopened.getBalance(alice, START), 1e-9);
+        assertEquals(140.0, reopened.getBalance(bob, START), 1e-9);
+    }
+
+    @Test
+    void unflushedChangesAreLostButFlushedOnesSurvive() throws IOException {
+        UUID alice = UUID.randomUUID();
+        JournalBalanceStore store = open(1000);
+        store.adjust(alice, 10, null, START);
+        store.flush();
+        store.adjust(alice, 10, null, START);
+
+        assertEquals(110.0, open(1000).getBalance(alice, START), 1e-9);
+    }
+
+    @Test
+    void closeCompactsIntoSnapshot() throws IOException {
+        UUID alice = UUID.randomUUID();
+        JournalBalanceStore store = open(1000);
+        store.adjust(alice, 50, null, START);
+        store.close();
+
+        assertEquals(0, new File(dir, "economy.journal").length());
+        assertEquals(150.0, open(1000).getBalance(alice, START), 1e-9);
+    }
+
+    @Test
+    void replaysOnlyEntriesNewerThanSnapshot() throws IOException {
+        UUID alice = UUID.randomUUID();
+        JournalBalanceStore store = open(2);
+        for (int i = 0; i < 7; i++) {
+            store.adjust(alice, 1, null, START);
+            store.flush();
+        }
+        // Compaction ran part way through, so both files hold part of the history
+        assertTrue(new File(dir, "economy.snapshot").exists());
+
+        assertEquals(107.0, open(2).getBalance(alice, START), 1e-9);
+    }
+
+    @Test
+    void settlementIsDepositedOnceAcrossReplayAndCompaction() throws IOException {
+        UUID alice = UUID.randomUUID();
+        UUID settlement = UUID.randomUUID();
+        JournalBalanceStore store = open(1000);
+        assertTrue(store.deposit(alice, 40, settlement, START));
+        assertFalse(store.deposit(alice, 40, settlement, START));
+        store.flush();
+
+        // Crash: the id comes back from the journal
+        JournalBalanceStore replayed = open(1000);
+        assertFalse(replayed.deposit(alice, 40, settlement, START));
+        replayed.close();
+
+        // And from the snapshot once compacted
+        JournalBalanceStore compacted = open(1000);
+        assertFalse(compacted.deposit(alice, 40, settlement, START));
+        assertEquals(140.0, compacted.getBalance(alice, START), 1e-9);
+        // Forgotten ids leave the files with the next compaction
+        compacted.retainSettlements(Set.of());
+        compacted.adjust(alice, -1, null, START);
+        compacted.close();
+
+        JournalBalanceStore forgotten = open(1000);
+        assertTrue(forgotten.deposit(alice, 40, settlement, START));
+        assertEquals(179.0, forgotten.getBalance(alice, START), 1e-9);
+    }
+
+    @Test
+    void unflushedSettlementIsAppliedAgain() throws IOException {
+        UUID alice = UUID.randomUUID();
+        UUID settlement = UUID.randomUUID();
+        JournalBalanceStore store = open(1000);
+        store.deposit(alice, 40, settlement, START);
+
+        JournalBalanceStore reopened = open(1000);
+        assertTrue(reopened.deposit(alice, 40, settlement, START));
+        assertEquals(140.0, reopened.getBalance(alice, START), 1e-9);
+    }
+
+    @Test
+    void failedCompactionLosesNothing() throws IOException {
+        UUID alice = UUID.randomUUID();
+        JournalBalanceStore store = open(2);
+        // A directory where the temporary snapshot goes makes every snapshot write fail
+        assertTrue(new File(dir, "economy.snapshot.tmp").mkdir());
+        for (int i = 0; i < 5; i++) {
+            store.adjust(alice, 1, null, START);
+            store.flush();
+        }
+        store.adjust(alice, 1, null, START);
+        store.flush();
+
+        assertFalse(new File(dir, "economy.snapshot").exists());
+        assertEquals(106.0, open(2).getBalance(alice, START), 1e-9);
+    }
+
+    @Test
+    void tornTailIsCutOff() throws IOException {
+        UUID alice = UUID.randomUUID();
+        JournalBalanceStore store = open(1000);
+        store.adjust(alice, -30, null, START);
+        store.flush();
+
+        File journal = new File(dir, "economy.journal");
+        long intact = journal.length();
+        try (RandomAccessFile raf = new RandomAccessFile(journal, "rw")) {
+            raf.seek(intact);
+            raf.write(new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11});
+        }
+
+        assertEquals(70.0, open(1000).getBalance(alice, START), 1e-9);
+        assertEquals(intact, journal.length());
+    }
+
+    @Test
+    void corruptSnapshotIsRefusedAndLeftAlone() throws IOException {
+        UUID alice = UUID.randomUUID();
+        JournalBalanceStore store = open(1000);
+        store.adjust(alice, 50, null, START);
+        store.close();
+        JournalBalanceStore later = open(1000);
+        later.adjust(alice, 1, null, START);
+        later.flush();
+
+        File snapshot = new File(dir, "economy.snapshot");
+        File journal = new File(dir, "economy.journal");
+        byte[] bytes = Files.readAllBytes(snapshot.toPath());
+        bytes[bytes.length - 6] ^= 0x5A;
+        Files.write(snapshot.toPath(), bytes);
+        byte[] journalBytes = Files.readAllBytes(journal.toPath());
+
+        assertThrows(IOException.class, () -> open(1000));
+        assertArrayEquals(bytes, Files.readAllBytes(snapshot.toPath()));
+        assertArrayEquals(journalBytes, Files.readAllBytes(journal.toPath()));
+    }
+}
@@ -0,0 +1,137 @@
+package com.wager.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedBalanceStoreTest {
+
+    private static final Logger LOGGER = Logger.getLogger("MappedBalanceStoreTest");
+    private static final double START = 100.0;
+
+    @TempDir
+    File dir;
+
+    private MappedBalanceStore open() throws IOException {
+        MappedBalanceStore store = new MappedBalanceStore(dir, LOGGER);
+        store.load();
+        return store;
+    }
+
+    @Test
+    void balancesSurviveReopen() throws IOException {
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        MappedBalanceStore store = open();
+        assertEquals(75.0, store.adjust(alice, -25, UUID.randomUUID(), START), 1e-9);
+        assertEquals(100.0, store.getBalance(bob, START), 1e-9);
+        assertEquals(100.01, store.adjust(alice, 25.01, null, START), 1e-9);
+        store.close();
+
+        MappedBalanceStore reopened = open();
+        assertEquals(100.01, reopened.getBalance(alice, START), 1e-9);
+        assertEquals(100.0, reopened.getBalance(bob, START), 1e-9);
+    }
+
+    @Test
+    void growsPastInitialCapacityAndKeepsEveryAccount() throws IOException {
+        MappedBalanceStore store = open();
+        List<UUID> accounts = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            UUID account = UUID.randomUUID();
+            accounts.add(account);
+            store.adjust(account, i, null, START);
+        }
+        store.close();
+
+        assertTrue(new File(dir, "economy.dat").length() > 64 + 1024L * 24);
+        MappedBalanceStore reopened = open();
+        for (int i = 0; i < accounts.size(); i++) {
+            assertEquals(START + i, reopened.getBalance(accounts.get(i), -1), 1e-9);
+        }
+    }
+
+    @Test
+    void refusesInsertsOnceFullTableCannotGrow() throws IOException {
+        MappedBalanceStore store = open();
+        // A non-empty directory where the rehash file goes makes every grow() fail
+        File blocker = new File(dir, "economy.dat.tmp");
+        assertTrue(blocker.mkdir());
+        Files.createFile(new File(blocker, "keep").toPath());
+
+        List<UUID> accounts = new ArrayList<>();
+        // One slot must stay empty, so 1023 of 1024 fit
+        for (int i = 0; i < 1023; i++) {
+            UUID account = UUID.randomUUID();
+            accounts.add(account);
+            store.getBalance(account, START);
+        }
+        assertThrows(IllegalStateException.class, () -> store.getBalance(UUID.randomUUID(), START));
+        assertThrows(IllegalStateException.class, () -> store.adjust(UUID.randomUUID(), 1, null, START));
+
+        // Existing accounts still resolve instead of probing forever
+        assertEquals(START + 5, store.adjust(accounts.get(0), 5, null, START), 1e-9);
+        assertEquals(START, store.getBalance(accounts.get(1022), START), 1e-9);
+    }
+
+    @Test
+    void settlementIsDepositedOnceAcrossReopen() throws IOException {
+        UUID alice = UUID.randomUUID();
+        UUID settlement = UUID.randomUUID();
+        MappedBalanceStore store = open();
+        assertTrue(store.deposit(alice, 40, settlement, START));
+        assertFalse(store.deposit(alice, 40, settlement, START));
+        store.close();
+
+        MappedBalanceStore reopened = open();
+        assertFalse(reopened.deposit(alice, 40, settlement, START));
+        assertEquals(140.0, reopened.getBalance(alice, START), 1e-9);
+
+        reopened.retainSettlements(Set.of());
+        assertTrue(reopened.deposit(alice, 40, settlement, START));
+        assertEquals(180.0, reopened.getBalance(alice, START), 1e-9);
+    }
+
+    @Test
+    void forgettingSettlementsKeepsEveryAccountReachable() throws IOException {
+        MappedBalanceStore store = open();
+        List<UUID> accounts = new ArrayList<>();
+        List<UUID> settlements = new ArrayList<>();
+        // Interleaved so removed markers sit in the middle of other entries' probe runs
+        for (int i = 0; i < 600; i++) {
+            UUID account = UUID.randomUUID();
+            UUID settlement = UUID.randomUUID();
+            accounts.add(account);
+            settlements.add(settlement);
+            store.deposit(account, i, settlement, START);
+        }
+        Set<UUID> kept = Set.copyOf(settlements.subList(0, 100));
+        store.retainSettlements(kept);
+        store.close();
+
+        MappedBalanceStore reopened = open();
+        for (int i = 0; i < accounts.size(); i++) {
+            assertEquals(START + i, reopened.getBalance(accounts.get(i), -1), 1e-9);
+            assertEquals(i >= 100, reopened.deposit(accounts.get(i), 0, settlements.get(i), START));
+        }
+    }
+
+    @Test
+    void rejectsFileThatIsNotABalanceTable() throws IOException {
+        Files.write(new File(dir, "economy.dat").toPath(), new byte[128]);
+        assertThrows(IOException.class, this::open);
+    }
+}
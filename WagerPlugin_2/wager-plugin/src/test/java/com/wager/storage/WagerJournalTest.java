@@ -0,0 +1,170 @@
+package com.wager.storage;
+
+import com.wager.managers.Wager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WagerJournalTest {
+
+    private static final Logger LOGGER = Logger.getLogger("WagerJournalTest");
+
+    @TempDir
+    File dir;
+
+    private final UUID creator = UUID.randomUUID();
+    private final UUID opponent = UUID.randomUUID();
+
+    private WagerJournal open() throws IOException {
+        return new WagerJournal(dir, LOGGER);
+    }
+
+    private File file() {
+        return new File(dir, "wagers.journal");
+    }
+
+    private static Map<UUID, WagerJournal.Interrupted> byId(WagerJournal.Recovery recovery) {
+        Map<UUID, WagerJournal.Interrupted> wagers = new HashMap<>();
+        for (WagerJournal.Interrupted wager : recovery.wagers()) wagers.put(wager.wagerId(), wager);
+        return wagers;
+    }
+
+    @Test
+    void recoversOpenWagersAndSnapshots() throws IOException {
+        UUID open = UUID.randomUUID();
+        UUID settled = UUID.randomUUID();
+        byte[] inventory = {1, 2, 3, 4};
+
+        WagerJournal journal = open();
+        journal.load();
+        journal.recordState(open, Wager.WagerState.IN_PROGRESS, creator, opponent, 500);
+        journal.recordHold(open, creator, 500);
+        journal.recordHold(open, opponent, 500);
+        journal.recordState(settled, Wager.WagerState.ACCEPTED, creator, opponent, 50);
+        journal.recordHold(settled, creator, 50);
+        journal.recordClose(settled);
+        journal.recordSnapshot(creator, inventory);
+        journal.recordSnapshot(opponent, new byte[]{9});
+        journal.recordRestored(opponent);
+        journal.commit(journal.prepare());
+        // Crash: never closed
+
+        WagerJournal.Recovery recovery = open().load();
+        Map<UUID, WagerJournal.Interrupted> wagers = byId(recovery);
+        assertEquals(1, wagers.size());
+        WagerJournal.Interrupted interrupted = wagers.get(open);
+        assertEquals(Wager.WagerState.IN_PROGRESS, interrupted.state());
+        assertEquals(creator, interrupted.creator());
+        assertEquals(opponent, interrupted.opponent());
+        assertEquals(Map.of(creator, 500.0, opponent, 500.0), interrupted.holds());
+        assertEquals(1, recovery.snapshots().size());
+        assertArrayEquals(inventory, recovery.snapshots().get(creator));
+    }
+
+    @Test
+    void everyStateSurvivesAReload() throws IOException {
+        Map<UUID, Wager.WagerState> expected = new HashMap<>();
+        WagerJournal journal = open();
+        journal.load();
+        for (Wager.WagerState state : Wager.WagerState.values()) {
+            UUID wagerId = UUID.randomUUID();
+            journal.recordHold(wagerId, creator, 10);
+            journal.recordState(wagerId, state, creator, opponent, 10);
+            expected.put(wagerId, state);
+        }
+        journal.close();
+
+        Map<UUID, WagerJournal.Interrupted> wagers = byId(open().load());
+        assertEquals(expected.size(), wagers.size());
+        for (Map.Entry<UUID, Wager.WagerState> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), wagers.get(entry.getKey()).state());
+        }
+    }
+
+    @Test
+    void replayStopsAtACorruptRecordAndCutsItOff() throws IOException {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        WagerJournal journal = open();
+        journal.load();
+        journal.recordHold(first, creator, 100);
+        journal.commit(journal.prepare());
+        long intact = file().length();
+        journal.recordHold(second, creator, 200);
+        journal.commit(journal.prepare());
+        journal.close();
+
+        // Flip a byte inside the second record's body so its CRC no longer matches
+        try (RandomAccessFile raf = new RandomAccessFile(file(), "rw")) {
+            raf.seek(intact + 10);
+            int b = raf.read();
+            raf.seek(intact + 10);
+            raf.write(b ^ 0xFF);
+        }
+
+        Map<UUID, WagerJournal.Interrupted> wagers = byId(open().load());
+        assertEquals(1, wagers.size());
+        assertTrue(wagers.containsKey(first));
+        assertEquals(intact, file().length());
+    }
+
+    @Test
+    void tornTailIsDiscarded() throws IOException {
+        UUID wagerId = UUID.randomUUID();
+        WagerJournal journal = open();
+        journal.load();
+        journal.recordHold(wagerId, creator, 100);
+        journal.close();
+        long intact = file().length();
+
+        // Half a length prefix and a few bytes of body, as if the process died mid-write
+        Files.write(file().toPath(), new byte[]{0, 0, 0, 41, 2, 7, 7}, StandardOpenOption.APPEND);
+
+        assertTrue(byId(open().load()).containsKey(wagerId));
+        assertEquals(intact, file().length());
+    }
+
+    @Test
+    void unknownStateCodeIsSkippedNotMisread() throws IOException {
+        UUID unknown = UUID.randomUUID();
+        UUID later = UUID.randomUUID();
+
+        // A well-formed STATE record carrying a code no state maps to
+        ByteBuffer body = ByteBuffer.allocate(1 + 16 + 1 + 16 + 16 + 8);
+        body.put((byte) 1);
+        body.putLong(unknown.getMostSignificantBits()).putLong(unknown.getLeastSignificantBits());
+        body.put((byte) 42);
+        body.putLong(creator.getMostSignificantBits()).putLong(creator.getLeastSignificantBits());
+        body.putLong(opponent.getMostSignificantBits()).putLong(opponent.getLeastSignificantBits());
+        body.putDouble(10);
+        CRC32 crc = new CRC32();
+        crc.update(body.array());
+        ByteBuffer record = ByteBuffer.allocate(4 + body.capacity() + 4);
+        record.putInt(body.capacity()).put(body.array()).putInt((int) crc.getValue());
+        Files.write(file().toPath(), record.array());
+
+        WagerJournal journal = open();
+        assertTrue(journal.load().wagers().isEmpty());
+        journal.recordHold(later, creator, 25);
+        journal.close();
+
+        Map<UUID, WagerJournal.Interrupted> wagers = byId(open().load());
+        assertEquals(1, wagers.size());
+        assertEquals(Map.of(creator, 25.0), wagers.get(later).holds());
+    }
+}
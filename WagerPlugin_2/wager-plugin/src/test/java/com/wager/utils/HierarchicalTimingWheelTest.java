@@ -0,0 +1,114 @@
+package com.wager.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HierarchicalTimingWheelTest {
+
+    @Test
+    void firesEveryItemOnItsExactTickAcrossLevels() {
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(3);
+        Random random = new Random(42);
+        Map<Integer, Long> expected = new HashMap<>();
+        // Delays on every level, plus the edges where a cascade happens
+        long[] edges = {1, 63, 64, 65, 127, 128, 4095, 4096, 4097, 8191, 8192, 262143};
+        int id = 0;
+        for (long delay : edges) {
+            wheel.schedule(delay, id);
+            expected.put(id++, delay);
+        }
+        for (int i = 0; i < 2000; i++) {
+            long delay = 1 + random.nextInt(20_000);
+            wheel.schedule(delay, id);
+            expected.put(id++, delay);
+        }
+
+        Map<Integer, Long> fired = new HashMap<>();
+        for (long tick = 1; tick <= 262143; tick++) {
+            long now = tick;
+            wheel.advance(item -> assertNull(fired.put(item, now), "fired twice: " + item));
+        }
+        assertEquals(expected, fired);
+    }
+
+    @Test
+    void itemsScheduledMidWayStillFireOnTime() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(2);
+        List<long[]> fired = new ArrayList<>();
+        int scheduled = 0;
+        for (int step = 0; step < 8000; step++) {
+            // Scheduled at an arbitrary tick, so deadlines don't line up with level boundaries
+            if (step < 3000 && step % 37 == 0) {
+                long delay = 1 + (step * 7919L) % 4000;
+                wheel.schedule(delay, wheel.getTick() + delay);
+                scheduled++;
+            }
+            long now = wheel.getTick() + 1;
+            wheel.advance(due -> fired.add(new long[]{due, now}));
+        }
+        assertEquals(scheduled, fired.size());
+        for (long[] entry : fired) {
+            assertEquals(entry[0], entry[1]);
+        }
+    }
+
+    @Test
+    void cancelledItemsNeverFire() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(2);
+        HierarchicalTimingWheel.Timeout<String> near = wheel.schedule(5, "near");
+        HierarchicalTimingWheel.Timeout<String> far = wheel.schedule(300, "far");
+        wheel.schedule(300, "kept");
+        near.cancel();
+        far.cancel();
+
+        List<String> fired = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            wheel.advance(fired::add);
+        }
+        assertEquals(List.of("kept"), fired);
+    }
+
+    @Test
+    void clampsDelaysToTheWheelRange() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1);
+        wheel.schedule(0, "soon");
+        wheel.schedule(1_000, "late");
+
+        List<String> fired = new ArrayList<>();
+        wheel.advance(fired::add);
+        assertEquals(List.of("soon"), fired);
+        for (int i = 1; i < 63; i++) {
+            wheel.advance(fired::add);
+        }
+        assertEquals(List.of("soon", "late"), fired);
+    }
+
+    @Test
+    void callbacksMayScheduleMoreWork() {
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(2);
+        wheel.schedule(10, 0);
+        List<Long> ticks = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            wheel.advance(count -> {
+                ticks.add(wheel.getTick());
+                if (count < 4) wheel.schedule(10, count + 1);
+            });
+        }
+        assertEquals(List.of(10L, 20L, 30L, 40L, 50L), ticks);
+    }
+
+    @Test
+    void rejectsBadLevelCounts() {
+        assertThrows(IllegalArgumentException.class, () -> new HierarchicalTimingWheel<>(0));
+        assertThrows(IllegalArgumentException.class, () -> new HierarchicalTimingWheel<>(11));
+    }
+}